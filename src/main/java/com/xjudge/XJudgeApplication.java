@@ -4,10 +4,8 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-
-import java.time.LocalDate;
-
 @SpringBootApplication
+@EnableScheduling
 public class XJudgeApplication {
 
     public static void main(String[] args) {
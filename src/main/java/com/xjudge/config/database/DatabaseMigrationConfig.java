@@ -0,0 +1,26 @@
+package com.xjudge.config.database;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs the schema fixes Hibernate's {@code ddl-auto=update} can't do on its own, before the entity manager
+ * factory starts and updates the schema.
+ */
+@Configuration
+public class DatabaseMigrationConfig {
+    private static final String PROBLEM_UNIQUE_KEY_MIGRATION = "problemUniqueKeyMigration";
+
+    @Bean(PROBLEM_UNIQUE_KEY_MIGRATION)
+    public ProblemUniqueKeyMigration problemUniqueKeyMigration(DataSource dataSource) {
+        return new ProblemUniqueKeyMigration(dataSource);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnMigrations() {
+        return new EntityManagerFactoryDependsOnPostProcessor(PROBLEM_UNIQUE_KEY_MIGRATION);
+    }
+}
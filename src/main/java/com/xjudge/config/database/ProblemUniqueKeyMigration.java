@@ -0,0 +1,87 @@
+package com.xjudge.config.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes sure the {@code uk_problem_code_online_judge} key exists before Hibernate updates the schema.
+ * Hibernate only logs a warning when rows already break a unique key it adds, and without that key the
+ * scraper's handling of concurrent inserts silently does nothing. So the problems stored twice are merged
+ * into the oldest copy first, with their submissions and contest and user links moved over, and the key
+ * is added here. Startup fails when it still can't be added.
+ */
+public class ProblemUniqueKeyMigration implements InitializingBean {
+    private static final String KEY_NAME = "uk_problem_code_online_judge";
+    private static final Logger logger = LoggerFactory.getLogger(ProblemUniqueKeyMigration.class);
+    // link tables keyed by (x, problem_id): a copy's link is moved unless the kept problem already has it
+    private static final List<String> LINK_TABLES = List.of("contest_problem", "user_problem");
+    // collection tables of the problem itself, the copy's sections and properties are dropped with it
+    private static final List<String> OWNED_TABLES = List.of("problem_sections", "problem_properties");
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProblemUniqueKeyMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // a new database gets the table, and the key with it, from Hibernate
+        if (!tableExists("problem") || keyExists()) return;
+        Integer merged = transactionTemplate.execute(status -> mergeDuplicates());
+        if (merged != null && merged > 0) logger.warn("Merged {} duplicate problems into their oldest copy", merged);
+        try {
+            jdbcTemplate.execute("ALTER TABLE problem ADD CONSTRAINT " + KEY_NAME + " UNIQUE (code, online_judge)");
+        } catch (RuntimeException exception) {
+            throw new IllegalStateException("Fail to add the unique key " + KEY_NAME + " to the problem table", exception);
+        }
+        logger.info("Added the unique key {} to the problem table", KEY_NAME);
+    }
+
+    private int mergeDuplicates() {
+        List<Map<String, Object>> copies = jdbcTemplate.queryForList(
+                "SELECT p.id AS copy_id, k.keep_id FROM problem p JOIN (" +
+                        "SELECT code, online_judge, MIN(id) AS keep_id FROM problem " +
+                        "GROUP BY code, online_judge HAVING COUNT(*) > 1" +
+                        ") k ON p.code = k.code AND p.online_judge = k.online_judge AND p.id <> k.keep_id");
+        for (Map<String, Object> copy : copies) {
+            Object copyId = copy.get("copy_id");
+            Object keepId = copy.get("keep_id");
+            jdbcTemplate.update("UPDATE submission SET problem_id = ? WHERE problem_id = ?", keepId, copyId);
+            for (String table : LINK_TABLES) {
+                if (!tableExists(table)) continue;
+                jdbcTemplate.update("UPDATE IGNORE " + table + " SET problem_id = ? WHERE problem_id = ?", keepId, copyId);
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE problem_id = ?", copyId);
+            }
+            for (String table : OWNED_TABLES) {
+                if (tableExists(table)) jdbcTemplate.update("DELETE FROM " + table + " WHERE problem_id = ?", copyId);
+            }
+            jdbcTemplate.update("DELETE FROM problem WHERE id = ?", copyId);
+        }
+        return copies.size();
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean keyExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.table_constraints " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'problem' AND constraint_name = ?",
+                Integer.class, KEY_NAME);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.xjudge.config.judge;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the per judge circuit breakers, bound from the {@code circuit-breaker.*} properties.
+ * Rates are percentages of the last {@code windowSize} calls.
+ */
+@Getter
+@Setter
+public class CircuitBreakerProperties {
+
+    private int windowSize = 20;
+
+    private int minimumCalls = 5;
+
+    private int failureRateThreshold = 50;
+
+    private Duration slowCallDuration = Duration.ofSeconds(30);
+
+    private int slowCallRateThreshold = 80;
+
+    private Duration openDuration = Duration.ofSeconds(60);
+}
@@ -0,0 +1,51 @@
+package com.xjudge.config.judge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JudgeConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "codeforces")
+    public JudgeProperties codeforcesProperties() {
+        return new JudgeProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "atcoder")
+    public JudgeProperties atcoderProperties() {
+        return new JudgeProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spoj")
+    public JudgeProperties spojProperties() {
+        return new JudgeProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "rate-limit")
+    public RateLimitProperties rateLimitProperties() {
+        return new RateLimitProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "circuit-breaker")
+    public CircuitBreakerProperties circuitBreakerProperties() {
+        return new CircuitBreakerProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "submission-queue")
+    public SubmissionQueueProperties submissionQueueProperties() {
+        return new SubmissionQueueProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "scraper-http")
+    public ScraperHttpProperties scraperHttpProperties() {
+        return new ScraperHttpProperties();
+    }
+}
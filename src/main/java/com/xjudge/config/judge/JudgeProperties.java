@@ -0,0 +1,48 @@
+package com.xjudge.config.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per online judge settings, bound from the {@code codeforces.*}, {@code atcoder.*} and {@code spoj.*} properties.
+ */
+@Getter
+@Setter
+public class JudgeProperties {
+
+    private List<Account> accounts = new ArrayList<>();
+
+    private Pool pool = new Pool();
+
+    private SubmissionEngine submissionEngine = SubmissionEngine.SELENIUM;
+
+    public enum SubmissionEngine {
+        SELENIUM, HTTP
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Account {
+        private String username;
+        @ToString.Exclude
+        private String password;
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int minDrivers = 1;
+        private int maxDrivers = 2;
+        private Duration idleTtl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,36 @@
+package com.xjudge.config.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Budgets of the remote judge traffic, bound from the {@code rate-limit.*} properties.
+ * Every (judge, account) pair gets its own bucket per operation.
+ */
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private Budget submit = new Budget(2, Duration.ofSeconds(10));
+
+    private Budget login = new Budget(3, Duration.ofMinutes(1));
+
+    private Budget statusPoll = new Budget(5, Duration.ofSeconds(2));
+
+    private Budget scrape = new Budget(10, Duration.ofSeconds(1));
+
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private int capacity;
+        private Duration refillPeriod;
+    }
+}
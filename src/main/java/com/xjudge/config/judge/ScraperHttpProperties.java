@@ -0,0 +1,25 @@
+package com.xjudge.config.judge;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HTTP client the problem scrapers share, bound from the {@code scraper-http.*} properties.
+ */
+@Getter
+@Setter
+public class ScraperHttpProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    private Duration requestTimeout = Duration.ofSeconds(20);
+
+    private int maxConcurrencyPerHost = 4;
+
+    private DataSize cacheSize = DataSize.ofMegabytes(32);
+
+    private String userAgent = "Mozilla/5.0 (compatible; X-Judge)";
+}
@@ -0,0 +1,27 @@
+package com.xjudge.config.judge;
+
+import com.xjudge.model.enums.UserRole;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limits of the submission queue, bound from the {@code submission-queue.*} properties.
+ * A user with weight 2 gets twice the share of a user with weight 1 within the same priority class.
+ */
+@Getter
+@Setter
+public class SubmissionQueueProperties {
+
+    private int maxInFlightPerJudge = 2;
+
+    private int maxInFlightPerUser = 2;
+
+    private Map<UserRole, Integer> weights = new EnumMap<>(UserRole.class);
+
+    public int getWeight(UserRole role) {
+        return Math.max(weights.getOrDefault(role, 1), 1);
+    }
+}
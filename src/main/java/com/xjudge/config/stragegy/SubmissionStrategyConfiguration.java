@@ -1,11 +1,15 @@
 package com.xjudge.config.stragegy;
 
+import com.xjudge.config.judge.JudgeProperties;
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.service.scraping.codeforces.CodeforcesHttpSubmission;
 import com.xjudge.service.scraping.spoj.SpojSubmission;
 import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.service.scraping.atcoder.AtCoderHttpSubmission;
 import com.xjudge.service.scraping.atcoder.AtCoderSubmission;
 import com.xjudge.service.scraping.codeforces.CodeforcesSubmission;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,14 +21,22 @@ import java.util.Map;
 public class SubmissionStrategyConfiguration {
 
     private final CodeforcesSubmission codeforcesSubmission;
+    private final CodeforcesHttpSubmission codeforcesHttpSubmission;
     private final AtCoderSubmission atCoderSubmission;
+    private final AtCoderHttpSubmission atCoderHttpSubmission;
     private final SpojSubmission spojSubmission;
 
     @Bean
-    public Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies() {
+    public Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies(
+            @Qualifier("codeforcesProperties") JudgeProperties codeforcesProperties,
+            @Qualifier("atcoderProperties") JudgeProperties atcoderProperties) {
         Map<OnlineJudgeType, SubmissionStrategy> strategies = new HashMap<>();
-        strategies.put(OnlineJudgeType.codeforces, codeforcesSubmission);
-        strategies.put(OnlineJudgeType.atcoder, atCoderSubmission);
+        strategies.put(OnlineJudgeType.codeforces, codeforcesProperties.getSubmissionEngine() == JudgeProperties.SubmissionEngine.HTTP
+                ? codeforcesHttpSubmission
+                : codeforcesSubmission);
+        strategies.put(OnlineJudgeType.atcoder, atcoderProperties.getSubmissionEngine() == JudgeProperties.SubmissionEngine.HTTP
+                ? atCoderHttpSubmission
+                : atCoderSubmission);
         strategies.put(OnlineJudgeType.spoj, spojSubmission);
         return strategies;
     }
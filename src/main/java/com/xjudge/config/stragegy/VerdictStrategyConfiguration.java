@@ -0,0 +1,31 @@
+package com.xjudge.config.stragegy;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.service.scraping.atcoder.AtCoderVerdict;
+import com.xjudge.service.scraping.codeforces.CodeforcesVerdict;
+import com.xjudge.service.scraping.spoj.SpojVerdict;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@RequiredArgsConstructor
+public class VerdictStrategyConfiguration {
+
+    private final CodeforcesVerdict codeforcesVerdict;
+    private final AtCoderVerdict atCoderVerdict;
+    private final SpojVerdict spojVerdict;
+
+    @Bean
+    public Map<OnlineJudgeType, VerdictStrategy> verdictStrategies() {
+        Map<OnlineJudgeType, VerdictStrategy> strategies = new HashMap<>();
+        strategies.put(OnlineJudgeType.codeforces, codeforcesVerdict);
+        strategies.put(OnlineJudgeType.atcoder, atCoderVerdict);
+        strategies.put(OnlineJudgeType.spoj, spojVerdict);
+        return strategies;
+    }
+}
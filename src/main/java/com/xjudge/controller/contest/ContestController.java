@@ -7,6 +7,7 @@ import com.xjudge.model.contest.modification.ContestClientRequest;
 import com.xjudge.model.response.Response;
 import com.xjudge.model.submission.SubmissionInfoModel;
 import com.xjudge.model.submission.SubmissionModel;
+import com.xjudge.service.submission.stream.SubmissionEventStream;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,11 +16,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.xjudge.service.contest.ContestService;
 
 
@@ -30,6 +33,7 @@ import com.xjudge.service.contest.ContestService;
 public class ContestController {
 
     private final ContestService contestService;
+    private final SubmissionEventStream submissionEventStream;
 
     @GetMapping
     public  ResponseEntity<?> getAllContest(@RequestParam(defaultValue = "0") Integer pageNo,
@@ -139,6 +143,12 @@ public class ContestController {
         return new ResponseEntity<>(contestService.getContestSubmissions(id,userHandle , problemCode,result , language , pageable) , HttpStatus.OK);
     }
 
+    @PreAuthorize(value = "@contestSecurity.authorizeContestantsRoles(principal.username , #id , #password)")
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContestEvents(@PathVariable Long id , @RequestParam(defaultValue = "") String password) {
+        return submissionEventStream.subscribeContest(id);
+    }
+
     @ResponseStatus(code = HttpStatus.OK)
     @GetMapping("/{id}/rank")
     @PreAuthorize(value = "@contestSecurity.authorizeContestantsRoles(principal.username , #id , #password)")
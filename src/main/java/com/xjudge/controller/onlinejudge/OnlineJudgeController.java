@@ -2,14 +2,19 @@ package com.xjudge.controller.onlinejudge;
 
 import com.xjudge.model.enums.OnlineJudgeType;
 import com.xjudge.model.response.Response;
+import com.xjudge.service.onlinejudge.OnlineJudgeService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @Tag(name = "Compiler", description = "The end-points related to online judges we are working with.")
+@RequiredArgsConstructor
 public class OnlineJudgeController {
+    private final OnlineJudgeService onlineJudgeService;
 
     @GetMapping("/online-judge")
     public ResponseEntity<?> getOnlineJudgeList() {
@@ -20,4 +25,24 @@ public class OnlineJudgeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/online-judge/status")
+    @Operation(summary = "Get online judges status", description = "Get the readiness and the load of the submission engine of every online judge.")
+    public ResponseEntity<?> getOnlineJudgeStatus() {
+        Response response = Response.builder()
+                .success(true)
+                .data(onlineJudgeService.getJudgeStatus())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/online-judge/scraper-http")
+    @Operation(summary = "Get scraper HTTP statistics", description = "Get the requests, conditional hits, failures, received bytes and average time of the problem scrapers per judge host.")
+    public ResponseEntity<?> getScraperHttpStatistics() {
+        Response response = Response.builder()
+                .success(true)
+                .data(onlineJudgeService.getScraperHttpStatistics())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -2,6 +2,7 @@ package com.xjudge.controller.problem;
 
 import com.xjudge.exception.XJudgeValidationException;
 
+import com.xjudge.model.problem.ProblemImportModel;
 import com.xjudge.model.problem.ProblemsPageModel;
 import com.xjudge.model.response.Response;
 
@@ -83,6 +84,27 @@ public class ProblemController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/cache")
+    @Operation(summary = "Get problem cache statistics", description = "Get the size, hits, misses and evictions of the problem and statement caches.")
+    public ResponseEntity<?> getCacheStatistics() {
+        Response response = Response.builder()
+                .success(true)
+                .data(problemService.getCacheStatistics())
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Import problems", description = "Import every problem of a remote contest or a list of problem codes, and get the status of each one.")
+    public ResponseEntity<?> importProblems(@Valid @RequestBody ProblemImportModel importModel, BindingResult result) {
+        if(result.hasErrors()) throw new XJudgeValidationException(result.getFieldErrors() ,XJudgeValidationException.VALIDATION_ERROR ,ProblemController.class.getName(),HttpStatus.BAD_REQUEST);
+        Response response = Response.builder()
+                .success(true)
+                .data(problemService.importProblems(importModel))
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PostMapping("/submit")
     @Operation(summary = "Submit a problem", description = "Submit a specific problem to be judged.")
     public ResponseEntity<?> submit(@Valid @RequestBody SubmissionInfoModel info , BindingResult result , Authentication authentication){
@@ -1,26 +1,62 @@
 package com.xjudge.controller.problem;
 
-import com.xjudge.service.problem.ProblemService;
+import com.xjudge.model.problem.RenderedProblemPage;
+import com.xjudge.service.problem.ProblemPageRenderer;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 @Controller
 @RequiredArgsConstructor
 public class ProblemDescription {
+    private static final MediaType HTML = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
 
-    private final ProblemService problemService;
+    private final ProblemPageRenderer problemPageRenderer;
 
     @GetMapping("/description/{source}-{code}")
     @Operation(summary = "Get problem description", description = "Get the description of a specific problem.")
-    public String getProblemDescription(@PathVariable String source,
-                                        @PathVariable String code,
-                                        Model model) {
-        model.addAttribute("problem", problemService.getProblemDescription(source, code));
-        return "problem-description";
+    public ResponseEntity<byte[]> getProblemDescription(@PathVariable String source,
+                                                        @PathVariable String code,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                        HttpServletRequest request,
+                                                        HttpServletResponse response) {
+        RenderedProblemPage page = problemPageRenderer.getPage(source, code, request, response);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (page.isMatchedBy(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? page.gzipEtag() : page.etag())
+                    .cacheControl(problemPageRenderer.getCacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(HTML)
+                .eTag(gzip ? page.gzipEtag() : page.etag())
+                .cacheControl(problemPageRenderer.getCacheControl())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return builder.body(gzip ? page.gzip() : page.html());
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(coding -> coding.trim().toLowerCase().split(";"))
+                .anyMatch(coding -> coding[0].trim().equals("gzip")
+                        && (coding.length == 1 || !coding[1].trim().matches("q=0(\\.0*)?")));
     }
 
 }
@@ -2,14 +2,17 @@ package com.xjudge.controller.submission;
 
 import com.xjudge.model.response.Response;
 import com.xjudge.service.submission.SubmissionService;
+import com.xjudge.service.submission.stream.SubmissionEventStream;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @AllArgsConstructor
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Submission", description = "The end-points related to submission operations.")
 public class SubmissionController {
     private final SubmissionService submissionService;
+    private final SubmissionEventStream submissionEventStream;
 
     @GetMapping
     public ResponseEntity<Response> getAllSubmissions(@RequestParam(defaultValue = "0") Integer pageNo,
@@ -56,6 +60,11 @@ public class SubmissionController {
         return new ResponseEntity<>(response , HttpStatus.OK);
     }
 
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmissionEvents(@PathVariable long id) {
+        return submissionEventStream.subscribeSubmission(id);
+    }
+
     @PutMapping("/{id}/open")
     public ResponseEntity<Response> openSubmission(@PathVariable long id , Authentication authentication){
         Response response = Response.builder()
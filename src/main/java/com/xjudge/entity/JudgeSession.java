@@ -0,0 +1,39 @@
+package com.xjudge.entity;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.util.JsonDataConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The last known session cookies of a judge account, so a new driver or HTTP client starts logged in.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "judge_session", uniqueConstraints = @UniqueConstraint(columnNames = {"oj_type", "account"}))
+public class JudgeSession extends BaseEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "oj_type", nullable = false)
+    private OnlineJudgeType ojType;
+
+    @Column(nullable = false)
+    private String account;
+
+    @Column(columnDefinition = "TEXT")
+    @Convert(converter = JsonDataConverter.class)
+    private Map<String, Object> cookies;
+
+    private Instant updatedAt;
+}
@@ -16,7 +16,9 @@ import java.util.*;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "problem")
+@Table(name = "problem", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_problem_code_online_judge", columnNames = {"code", "online_judge"})
+})
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Problem extends BaseEntity<Long> {
 
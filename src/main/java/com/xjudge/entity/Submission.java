@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
@@ -17,7 +18,11 @@ import java.time.Instant;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="submission")
+@Table(name="submission", indexes = {
+        @Index(name = "idx_submission_verdict_code", columnList = "verdict_code"),
+        @Index(name = "idx_submission_problem_verdict", columnList = "problem_id, verdict_code"),
+        @Index(name = "idx_submission_contest_verdict", columnList = "contest_id, verdict_code")
+})
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Submission extends BaseEntity<Long> {
 
@@ -27,12 +32,18 @@ public class Submission extends BaseEntity<Long> {
 
     private String remoteRunId;
 
+    private String remoteAccount;
+
     private OnlineJudgeType ojType;
 
     @Column(columnDefinition = "LONGTEXT")
     @Size(max = 65535)
     private String solution;
 
+    @JsonIgnore
+    @Column(length = 64)
+    private String sourceHash;
+
     private String language;
 
     private Instant submitTime;
@@ -43,9 +54,28 @@ public class Submission extends BaseEntity<Long> {
 
     private String verdict;
 
+    @Enumerated(EnumType.STRING)
+    private Verdict verdictCode;
+
+    private Integer testNumber;
+
+    private Integer timeMs;
+
+    private Integer memoryKb;
+
     private Boolean isOpen;
 
-    private String submissionStatus; // kept updated (submitted, in queue, running test 14, Accepted)
+    private String submissionStatus; // in queue, running, judging (remote run waiting for its verdict), check later, submitted, unsubmitted, failed
+
+    @JsonIgnore
+    @Builder.Default
+    private Integer submitAttempts = 0;
+
+    @JsonIgnore
+    private Instant nextSubmitAt;
+
+    @JsonIgnore
+    private Instant judgedAt;
 
     @ManyToOne(fetch = FetchType.LAZY , cascade = CascadeType.PERSIST)
     @JoinColumn(name = "contest_id")
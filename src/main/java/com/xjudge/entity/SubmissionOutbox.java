@@ -0,0 +1,40 @@
+package com.xjudge.entity;
+
+import com.xjudge.model.enums.OutboxState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The durable work item of a submission, written in the same transaction as every state change of
+ * the submission so the work can be picked up again after a restart.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "submission_outbox", indexes = @Index(name = "idx_submission_outbox_state", columnList = "state"))
+public class SubmissionOutbox extends BaseEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long submissionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxState state;
+
+    private String remoteRunId;
+
+    private String remoteAccount;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -17,6 +17,8 @@ public interface SubmissionMapper {
     @Mapping(target = "contestId", source = "contest.id")
     @Mapping(target = "userHandle", source = "user.handle")
     @Mapping(target = "problemCode", source = "problem.code")
+    @Mapping(target = "queuePosition", ignore = true)
+    @Mapping(target = "estimatedCompletionTime", ignore = true)
     SubmissionModel toModel(Submission submission);
 
     @Named("toOpenSubmissionModel")
@@ -24,6 +26,8 @@ public interface SubmissionMapper {
     @Mapping(target = "userHandle", source = "submission.user.handle")
     @Mapping(target = "problemCode", source = "submission.problem.code")
     @Mapping(target = "solution" , source = "solution")
+    @Mapping(target = "queuePosition", ignore = true)
+    @Mapping(target = "estimatedCompletionTime", ignore = true)
     OpenSubmissionModel toOpenSubmissionModel(Submission submission , String solution);
 
     List<SubmissionModel> toModels(List<Submission> submissions);
@@ -34,5 +38,7 @@ public interface SubmissionMapper {
 
     @Mapping(target = "problemCode", source = "submission.problem.code")
     @Mapping(target = "userHandle", source = "submission.user.handle")
+    @Mapping(target = "queuePosition", ignore = true)
+    @Mapping(target = "estimatedCompletionTime", ignore = true)
     ContestStatusPageModel toContestStatusPageModel(Submission submission , String problemHashtag);
 }
@@ -0,0 +1,12 @@
+package com.xjudge.model.cache;
+
+public record CacheStatistics(
+        int entries,
+        int maxEntries,
+        long weight,
+        long maxWeight,
+        long hits,
+        long misses,
+        long evictions
+) {
+}
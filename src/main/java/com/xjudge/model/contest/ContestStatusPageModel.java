@@ -1,6 +1,7 @@
 package com.xjudge.model.contest;
 
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,10 +15,16 @@ public class ContestStatusPageModel {
     private OnlineJudgeType ojType;
     private String problemCode;
     private String verdict;
+    private Verdict verdictCode;
+    private Integer testNumber;
+    private Integer timeMs;
+    private Integer memoryKb;
     private String language;
     private String timeUsage;
     private String memoryUsage;
     private Instant submitTime;
     private String remoteRunId;
     private String problemHashtag;
+    private Integer queuePosition;
+    private Instant estimatedCompletionTime;
 }
@@ -0,0 +1,8 @@
+package com.xjudge.model.enums;
+
+public enum OutboxState {
+    PENDING_SUBMIT,
+    SENDING,
+    AWAITING_VERDICT,
+    DONE
+}
@@ -0,0 +1,9 @@
+package com.xjudge.model.enums;
+
+/**
+ * Classes of the submission queue, in the order they are served.
+ */
+public enum SubmissionPriority {
+    CONTEST,
+    PRACTICE
+}
@@ -0,0 +1,90 @@
+package com.xjudge.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized verdict of a submission, parsed from the free text each online judge shows
+ * ("Wrong answer on test 3", "WA", "3/12 WJ", ...).
+ */
+@Getter
+@AllArgsConstructor
+public enum Verdict {
+    IN_QUEUE(false),
+    RUNNING(false),
+    ACCEPTED(true),
+    PARTIAL(true),
+    WRONG_ANSWER(true),
+    TIME_LIMIT_EXCEEDED(true),
+    MEMORY_LIMIT_EXCEEDED(true),
+    OUTPUT_LIMIT_EXCEEDED(true),
+    IDLENESS_LIMIT_EXCEEDED(true),
+    RUNTIME_ERROR(true),
+    COMPILATION_ERROR(true),
+    HACKED(true),
+    SKIPPED(true),
+    JUDGE_ERROR(true),
+    SUBMIT_FAILED(true),
+    UNKNOWN(true);
+
+    private static final Pattern PROGRESS = Pattern.compile("^(\\d+)\\s*/\\s*\\d+");
+    // SPOJ shows the score instead of "accepted" on problems scored by points
+    private static final Pattern SCORE = Pattern.compile("^\\d+(?:\\.\\d+)?$");
+    private static final Pattern TEST_NUMBER = Pattern.compile("(?:on (?:pre)?test|running \\()\\s*(\\d+)");
+
+    private final boolean isFinal;
+
+    public static Verdict parse(String text) {
+        if (text == null || text.isBlank()) return IN_QUEUE;
+        String verdict = text.trim();
+        switch (verdict) {
+            case "AC": return ACCEPTED;
+            case "WA": return WRONG_ANSWER;
+            case "TLE": return TIME_LIMIT_EXCEEDED;
+            case "MLE": return MEMORY_LIMIT_EXCEEDED;
+            case "OLE": return OUTPUT_LIMIT_EXCEEDED;
+            case "RE": return RUNTIME_ERROR;
+            case "CE": return COMPILATION_ERROR;
+            case "IE": return JUDGE_ERROR;
+            case "WJ", "WR": return IN_QUEUE;
+            default: break;
+        }
+        if (PROGRESS.matcher(verdict).find()) return RUNNING;
+        if (SCORE.matcher(verdict).matches()) return ACCEPTED;
+
+        verdict = verdict.toLowerCase(Locale.ROOT);
+        if (verdict.contains("queue") || verdict.contains("waiting") || verdict.contains("pending")) return IN_QUEUE;
+        if (verdict.contains("running") || verdict.contains("judging") || verdict.contains("compiling") || verdict.contains("testing")) return RUNNING;
+        if (verdict.contains("submit failed")) return SUBMIT_FAILED;
+        if (verdict.contains("accepted") || verdict.contains("pretests passed")
+                || verdict.contains("perfect result") || verdict.contains("happy new year")) return ACCEPTED;
+        if (verdict.contains("partial")) return PARTIAL;
+        if (verdict.contains("wrong answer")) return WRONG_ANSWER;
+        if (verdict.contains("time limit")) return TIME_LIMIT_EXCEEDED;
+        if (verdict.contains("memory limit")) return MEMORY_LIMIT_EXCEEDED;
+        if (verdict.contains("output limit")) return OUTPUT_LIMIT_EXCEEDED;
+        if (verdict.contains("idleness limit")) return IDLENESS_LIMIT_EXCEEDED;
+        if (verdict.contains("runtime error")) return RUNTIME_ERROR;
+        if (verdict.contains("compilation error")) return COMPILATION_ERROR;
+        if (verdict.contains("hacked") || verdict.contains("challenged")) return HACKED;
+        if (verdict.contains("skipped")) return SKIPPED;
+        if (verdict.contains("denial of judgement") || verdict.contains("internal error")) return JUDGE_ERROR;
+        return UNKNOWN;
+    }
+
+    /**
+     * @return the test the verdict refers to ("Wrong answer on test 3", "Running on test 4", "3/12 WJ"), or null
+     */
+    public static Integer parseTestNumber(String text) {
+        if (text == null) return null;
+        String verdict = text.trim().toLowerCase(Locale.ROOT);
+        Matcher matcher = TEST_NUMBER.matcher(verdict);
+        if (matcher.find()) return Integer.valueOf(matcher.group(1));
+        matcher = PROGRESS.matcher(verdict);
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+}
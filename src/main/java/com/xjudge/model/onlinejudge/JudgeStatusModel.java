@@ -0,0 +1,39 @@
+package com.xjudge.model.onlinejudge;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JudgeStatusModel {
+    private OnlineJudgeType judge;
+    private String submissionEngine;
+    private String state;
+    private int drivers;
+    private int busyDrivers;
+    private int waitingForDriver;
+    private int accounts;
+    private int busyAccounts;
+    private int waitingForAccount;
+    private int queuedSubmissions;
+    private int inFlightSubmissions;
+    private Long averageSendTimeMs;
+    private Long averageVerdictLatencyMs;
+    private Long verdictLatencyP50Ms;
+    private Long verdictLatencyP90Ms;
+    private Long verdictLatencyP99Ms;
+    private Map<String, Map<RemoteOperation, Long>> remainingTokens;
+    private String circuitState;
+    private double failureRate;
+    private double slowCallRate;
+    private Instant retryAt;
+}
@@ -0,0 +1,11 @@
+package com.xjudge.model.onlinejudge;
+
+public record ScraperHostStatistics(
+        long requests,
+        long notModified,
+        long failures,
+        long bytesReceived,
+        long averageTimeMs,
+        long averageFailureTimeMs
+) {
+}
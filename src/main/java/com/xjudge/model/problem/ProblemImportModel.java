@@ -0,0 +1,19 @@
+package com.xjudge.model.problem;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Problems to import from one online judge: every problem of {@code contestId}, the listed {@code codes}, or both.
+ */
+public record ProblemImportModel(
+        @NotNull(message = "You must select the online judge of the problems.")
+        OnlineJudgeType ojType,
+
+        String contestId,
+
+        List<String> codes
+) {
+}
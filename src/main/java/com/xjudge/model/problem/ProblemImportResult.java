@@ -0,0 +1,19 @@
+package com.xjudge.model.problem;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+
+/**
+ * The outcome of importing one problem, {@code status} is one of {@code existing}, {@code imported} or {@code failed}.
+ */
+public record ProblemImportResult(
+        OnlineJudgeType ojType,
+        String code,
+        String status,
+        Long problemId,
+        String title,
+        String message
+) {
+    public static ProblemImportResult failed(OnlineJudgeType ojType, String code, String message) {
+        return new ProblemImportResult(ojType, code, "failed", null, null, message);
+    }
+}
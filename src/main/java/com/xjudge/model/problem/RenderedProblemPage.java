@@ -0,0 +1,24 @@
+package com.xjudge.model.problem;
+
+import java.util.Arrays;
+
+/**
+ * The problem description page as rendered once, with its gzip encoding and the strong ETag of each encoding.
+ */
+public record RenderedProblemPage(byte[] html, byte[] gzip, String etag, String gzipEtag) {
+
+    public long size() {
+        return html.length + gzip.length;
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} header, compared weakly as RFC 9110 requires for it
+     */
+    public boolean isMatchedBy(String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag));
+    }
+}
@@ -1,9 +1,12 @@
 package com.xjudge.model.scrap;
 
+import com.xjudge.model.enums.Verdict;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.time.Instant;
+
 @Builder
 @Getter
 @ToString
@@ -12,5 +15,11 @@ public class SubmissionScrapedData {
     String memory;
     String verdict;
     String remoteId;
+    Verdict verdictCode;
+    Integer testNumber;
+    Integer timeMs;
+    Integer memoryKb;
+    String problemCode;
+    Instant submitTime;
 }
 
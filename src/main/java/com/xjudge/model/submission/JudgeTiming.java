@@ -0,0 +1,9 @@
+package com.xjudge.model.submission;
+
+import java.time.Instant;
+
+/**
+ * When a judged submission was sent and when its final verdict was seen.
+ */
+public record JudgeTiming(Instant submitTime, Instant judgedAt) {
+}
@@ -0,0 +1,19 @@
+package com.xjudge.model.submission;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+
+import java.time.Instant;
+
+/**
+ * A submission that reached its online judge and still waits for the final verdict.
+ */
+public record PendingSubmission(
+        Long id,
+        OnlineJudgeType ojType,
+        String problemCode,
+        String remoteRunId,
+        String remoteAccount,
+        Instant submitTime,
+        String status
+) {
+}
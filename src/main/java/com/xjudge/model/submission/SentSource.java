@@ -0,0 +1,9 @@
+package com.xjudge.model.submission;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+
+/**
+ * A source that was sent to an online judge through one of our accounts.
+ */
+public record SentSource(OnlineJudgeType ojType, String remoteAccount, String problemCode, String sourceHash) {
+}
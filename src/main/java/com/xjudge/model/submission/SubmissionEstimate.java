@@ -0,0 +1,11 @@
+package com.xjudge.model.submission;
+
+import java.time.Instant;
+
+/**
+ * Where a pending submission stands: its place in the queue of its judge, when it is still queued,
+ * and when its final verdict is expected.
+ */
+public record SubmissionEstimate(Integer queuePosition, Instant estimatedCompletionTime) {
+    public static final SubmissionEstimate NONE = new SubmissionEstimate(null, null);
+}
@@ -1,6 +1,7 @@
 package com.xjudge.model.submission;
 
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import lombok.*;
 
 import java.time.Instant;
@@ -26,6 +27,14 @@ public class SubmissionModel {
 
     private String verdict;
 
+    private Verdict verdictCode;
+
+    private Integer testNumber;
+
+    private Integer timeMs;
+
+    private Integer memoryKb;
+
     private Boolean isOpen;
 
     private String submissionStatus;
@@ -36,4 +45,8 @@ public class SubmissionModel {
 
     private Long contestId;
 
+    private Integer queuePosition;
+
+    private Instant estimatedCompletionTime;
+
 }
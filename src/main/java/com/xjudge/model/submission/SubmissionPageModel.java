@@ -1,6 +1,7 @@
 package com.xjudge.model.submission;
 
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,6 +19,10 @@ public class SubmissionPageModel {
     private OnlineJudgeType ojType;
     private String problemCode;
     private String verdict;
+    private Verdict verdictCode;
+    private Integer testNumber;
+    private Integer timeMs;
+    private Integer memoryKb;
     private String language;
     private String timeUsage;
     private String memoryUsage;
@@ -11,5 +11,7 @@ public interface CompilerRepo extends JpaRepository<Compiler, Long> {
 
     List<Compiler> findByOnlineJudgeType(OnlineJudgeType onlineJudgeType);
     Optional<Compiler> findCompilerByIdValue(String idValue);
+    Optional<Compiler> findCompilerByIdValueAndOnlineJudgeType(String idValue, OnlineJudgeType onlineJudgeType);
+    long countByOnlineJudgeType(OnlineJudgeType onlineJudgeType);
 
 }
@@ -0,0 +1,13 @@
+package com.xjudge.repository;
+
+import com.xjudge.entity.JudgeSession;
+import com.xjudge.model.enums.OnlineJudgeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JudgeSessionRepo extends JpaRepository<JudgeSession, Long> {
+    Optional<JudgeSession> findByOjTypeAndAccount(OnlineJudgeType ojType, String account);
+}
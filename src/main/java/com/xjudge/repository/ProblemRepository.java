@@ -9,11 +9,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProblemRepository extends JpaRepository<Problem, Long> {
     Optional<Problem> findByCodeAndOnlineJudge(String code, OnlineJudgeType onlineJudge);
+
+    List<Problem> findByOnlineJudgeAndCodeIn(OnlineJudgeType onlineJudge, Collection<String> codes);
+
     Page<Problem> findByTitleContaining(String title, Pageable pageable);
     Page<Problem> findByOnlineJudgeContaining(OnlineJudgeType source, Pageable pageable);
     Page<Problem> findByCodeContaining(String problemCode, Pageable pageable);
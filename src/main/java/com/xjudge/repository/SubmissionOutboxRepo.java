@@ -0,0 +1,26 @@
+package com.xjudge.repository;
+
+import com.xjudge.entity.SubmissionOutbox;
+import com.xjudge.model.enums.OutboxState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubmissionOutboxRepo extends JpaRepository<SubmissionOutbox, Long> {
+    Optional<SubmissionOutbox> findBySubmissionId(Long submissionId);
+
+    List<SubmissionOutbox> findByState(OutboxState state);
+
+    List<SubmissionOutbox> findByStateAndUpdatedAtBefore(OutboxState state, Instant before);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionOutbox o WHERE o.state = com.xjudge.model.enums.OutboxState.DONE AND o.updatedAt < :before")
+    int deleteDoneBefore(@Param("before") Instant before);
+}
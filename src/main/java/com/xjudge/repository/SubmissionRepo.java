@@ -4,6 +4,10 @@ import com.xjudge.entity.Problem;
 import com.xjudge.entity.Submission;
 import com.xjudge.entity.User;
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.submission.JudgeTiming;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.model.submission.SentSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +15,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -21,7 +26,13 @@ public interface SubmissionRepo extends JpaRepository<Submission, Long> {
 
     List<Submission> findByUserAndProblem(User user, Problem problem);
 
-    @Query("SELECT COUNT(s) FROM Submission s WHERE s.problem.code = ?1 AND s.ojType = ?2 AND s.verdict = 'Accepted'")
+    boolean existsByUserAndProblemAndVerdictCodeAndIdNot(User user, Problem problem, Verdict verdictCode, Long id);
+
+    boolean existsByContestIdAndUserIdAndProblemCodeAndVerdictCodeAndIdNot(Long contestId, Long userId, String problemCode, Verdict verdictCode, Long id);
+
+    List<Submission> findByVerdictCodeIsNull(Pageable pageable);
+
+    @Query("SELECT COUNT(s) FROM Submission s WHERE s.problem.code = ?1 AND s.ojType = ?2 AND s.verdictCode = com.xjudge.model.enums.Verdict.ACCEPTED")
     Integer getSolvedCount(String problemCode, OnlineJudgeType onlineJudgeType);
 
     @Query(value = "SELECT s FROM Submission s " +
@@ -46,5 +57,31 @@ public interface SubmissionRepo extends JpaRepository<Submission, Long> {
             "order by s.submitTime DESC")
     Page<Submission> filterContestSubmissions(@Param("contestId") long contestId,@Param("userHandle") String userHandle, @Param("problemCode") String problemCode,@Param("result") String result , @Param("language") String language, Pageable pageable);
 
+    boolean existsByOjTypeAndRemoteRunId(OnlineJudgeType ojType, String remoteRunId);
+
+    @Query("SELECT new com.xjudge.model.submission.JudgeTiming(s.submitTime, s.judgedAt) FROM Submission s " +
+            "WHERE s.ojType = :ojType AND s.judgedAt IS NOT NULL AND s.submitTime IS NOT NULL ORDER BY s.judgedAt DESC")
+    List<JudgeTiming> findRecentJudgeTimings(@Param("ojType") OnlineJudgeType ojType, Pageable pageable);
+
+    @Query("SELECT new com.xjudge.model.submission.SentSource(p.onlineJudge, s.remoteAccount, p.code, s.sourceHash) " +
+            "FROM Submission s JOIN s.problem p " +
+            "WHERE s.remoteAccount IS NOT NULL AND s.remoteRunId IS NOT NULL AND s.remoteRunId <> '0' " +
+            "AND s.sourceHash IS NOT NULL " +
+            "ORDER BY s.submitTime DESC")
+    List<SentSource> findRecentlySentSources(Pageable pageable);
+
+    @Query("SELECT s FROM Submission s JOIN FETCH s.problem " +
+            "WHERE s.sourceHash IS NULL AND s.solution IS NOT NULL ORDER BY s.submitTime DESC")
+    List<Submission> findBySourceHashIsNull(Pageable pageable);
+
     List<Submission> findSubmissionsBySubmissionStatus(String status);
+
+    @Query("SELECT new com.xjudge.model.submission.PendingSubmission(s.id, s.ojType, p.code, s.remoteRunId, " +
+            "s.remoteAccount, s.submitTime, s.submissionStatus) " +
+            "FROM Submission s JOIN s.problem p WHERE s.submissionStatus IN ('judging', 'check later')")
+    List<PendingSubmission> findPendingVerdicts();
+
+    @Query("SELECT s FROM Submission s WHERE s.submissionStatus = 'unsubmitted' " +
+            "AND (s.nextSubmitAt IS NULL OR s.nextSubmitAt <= :now) ORDER BY s.submitTime")
+    List<Submission> findDueResubmissions(@Param("now") Instant now, Pageable pageable);
 }
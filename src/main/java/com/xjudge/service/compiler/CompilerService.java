@@ -10,4 +10,6 @@ public interface CompilerService {
 
     List<Compiler> getCompilersByOnlineJudgeType(String onlineJudgeType);
     Compiler getCompilerByIdValue(String idValue);
+
+    Compiler getCompilerByIdValue(String idValue, OnlineJudgeType onlineJudgeType);
 }
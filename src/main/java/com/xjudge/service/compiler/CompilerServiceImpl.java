@@ -34,5 +34,11 @@ public class CompilerServiceImpl implements CompilerService{
                 .orElseThrow(() -> new XJudgeException("Invalid Compiler Id!" , CompilerService.class.getName() , HttpStatus.BAD_REQUEST));
     }
 
+    @Override
+    public Compiler getCompilerByIdValue(String idValue, OnlineJudgeType onlineJudgeType) {
+        return compilerRepo.findCompilerByIdValueAndOnlineJudgeType(idValue, onlineJudgeType)
+                .orElseThrow(() -> new XJudgeException("Invalid Compiler Id!" , CompilerService.class.getName() , HttpStatus.BAD_REQUEST));
+    }
+
 
 }
@@ -11,6 +11,7 @@ import com.xjudge.model.contest.modification.ContestProblemset;
 import com.xjudge.model.enums.ContestStatus;
 import com.xjudge.model.enums.ContestType;
 import com.xjudge.model.enums.ContestVisibility;
+import com.xjudge.model.enums.Verdict;
 import com.xjudge.model.problem.ProblemModel;
 import com.xjudge.model.submission.SubmissionInfoModel;
 import com.xjudge.model.submission.SubmissionModel;
@@ -20,12 +21,14 @@ import com.xjudge.service.contest.usercontest.UserContestService;
 import com.xjudge.service.group.GroupService;
 import com.xjudge.service.problem.ProblemService;
 import com.xjudge.service.submission.SubmissionService;
+import com.xjudge.service.submission.event.SubmissionJudgedEvent;
 import com.xjudge.service.user.UserService;
 import com.xjudge.util.ContestantComparator;
 import com.xjudge.util.Pagination;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +36,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -292,26 +296,35 @@ public class ContestServiceImp implements ContestService {
 
         }
 
-        Submission submission = problemService.submit(info, authentication);
-        logger.info("isProblemAccepted : {}", isProblemAcceptedByUser(contest.getId(), user.getId(), info.code()));
+        contestProblem.setNumberOfSubmission(contestProblem.getNumberOfSubmission() + 1);
+        contest.getProblemSet().add(contestProblem);
+        contest.getUsers().add(userContest);
+        contestRepo.save(contest);
+
+        return submissionMapper.toModel(problemService.submit(info, authentication, contest));
+    }
+
+    @EventListener
+    @Transactional
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        Submission submission = submissionService.getSubmission(event.submissionId());
+        Contest contest = submission.getContest();
+        if (contest == null) return;
+
+        User user = submission.getUser();
+        String problemCode = submission.getProblem().getCode();
+        UserContest userContest = getUserContest(contest , user.getHandle());
+        ContestProblem contestProblem = getContestProblemByCode(contest , problemCode);
 
-        if(submission.getVerdict().equals("Accepted") && !isProblemAcceptedByUser(contest.getId() , user.getId() , info.code())){
+        if(submission.getVerdictCode() == Verdict.ACCEPTED && !isProblemAcceptedByUser(contest.getId() , user.getId() , problemCode , submission.getId())){
             Duration duration = Duration.between(contest.getBeginTime() , submission.getSubmitTime());
             userContest.setUserContestPenalty(userContest.getUserContestPenalty() + duration.getSeconds());
-            userContest.setUserContestScore(userContest.getUserContestScore() + getProblemContestScore(contest , info.code()));
+            userContest.setUserContestScore(userContest.getUserContestScore() + getProblemContestScore(contest , problemCode));
             userContest.setNumOfAccepted(userContest.getNumOfAccepted() + 1);
             contestProblem.setNumberOfAccepted(contestProblem.getNumberOfAccepted() + 1);
-        } else if (submission.getVerdict().startsWith("W")) {
+        } else if (submission.getVerdictCode() == Verdict.WRONG_ANSWER) {
             userContest.setUserContestPenalty(userContest.getUserContestPenalty() + 20 * 60);
         }
-
-        contestProblem.setNumberOfSubmission(contestProblem.getNumberOfSubmission() + 1);
-        contest.getProblemSet().add(contestProblem);
-        contest.getUsers().add(userContest);
-        submission.setContest(contest);
-        submission = submissionService.save(submission);
-
-        return submissionMapper.toModel(submission);
     }
 
     private ContestProblem getContestProblemByCode(Contest contest , String problemCode) {
@@ -369,6 +382,10 @@ public class ContestServiceImp implements ContestService {
 
         contestProblemRepo.deleteAllByContestId(contest.getId());
 
+        // scrape the missing problems in parallel up front, the loop below then finds them stored
+        problemService.importProblems(problemSet.stream().collect(Collectors.groupingBy(
+                ContestProblemset::ojType, Collectors.mapping(ContestProblemset::code, Collectors.toList()))));
+
         for (ContestProblemset problemaya : problemSet) {
             Problem problem = problemService.getProblem(problemaya.ojType().name(), problemaya.code());
 
@@ -454,12 +471,8 @@ public class ContestServiceImp implements ContestService {
                 .orElseThrow().getProblemWeight();
     }
 
-    private boolean isProblemAcceptedByUser(long contestId , long userId , String problemCode){
-        return submissionService.getSubmissionsByContestId(contestId)
-                .stream()
-                .anyMatch(submission ->submission.getVerdict().equals("Accepted") &&
-                        submission.getProblem().getCode().equals(problemCode) &&
-                        submission.getUser().getId().equals(userId));
+    private boolean isProblemAcceptedByUser(long contestId , long userId , String problemCode , Long judgedSubmissionId){
+        return submissionService.hasAcceptedContestSubmission(contestId, userId, problemCode, judgedSubmissionId);
     }
 
     private User getContestOwner(Contest contest){
@@ -0,0 +1,13 @@
+package com.xjudge.service.onlinejudge;
+
+import com.xjudge.model.onlinejudge.JudgeStatusModel;
+import com.xjudge.model.onlinejudge.ScraperHostStatistics;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OnlineJudgeService {
+    List<JudgeStatusModel> getJudgeStatus();
+
+    Map<String, ScraperHostStatistics> getScraperHttpStatistics();
+}
@@ -0,0 +1,134 @@
+package com.xjudge.service.onlinejudge;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.onlinejudge.JudgeStatusModel;
+import com.xjudge.model.onlinejudge.ScraperHostStatistics;
+import com.xjudge.service.submission.worker.JudgeLatencyStatistics;
+import com.xjudge.util.accountpool.AccountPool;
+import com.xjudge.util.accountpool.AtCoderAccountPool;
+import com.xjudge.util.accountpool.CodeforcesAccountPool;
+import com.xjudge.util.accountpool.SpojAccountPool;
+import com.xjudge.util.circuitbreaker.CircuitBreaker;
+import com.xjudge.util.circuitbreaker.JudgeCircuitBreakers;
+import com.xjudge.util.driverpool.AbstractDriverPool;
+import com.xjudge.util.driverpool.AtCoderPool;
+import com.xjudge.util.driverpool.CodeforcesPool;
+import com.xjudge.util.http.ScraperHttpClient;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.submissionqueue.SubmissionQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OnlineJudgeServiceImpl implements OnlineJudgeService {
+    private final CodeforcesPool codeforcesPool;
+    private final AtCoderPool atCoderPool;
+    private final CodeforcesAccountPool codeforcesAccountPool;
+    private final AtCoderAccountPool atCoderAccountPool;
+    private final SpojAccountPool spojAccountPool;
+    private final JudgeProperties codeforcesProperties;
+    private final JudgeProperties atcoderProperties;
+    private final RemoteRateLimiter rateLimiter;
+    private final JudgeCircuitBreakers circuitBreakers;
+    private final SubmissionQueue submissionQueue;
+    private final JudgeLatencyStatistics latencyStatistics;
+    private final ScraperHttpClient scraperHttpClient;
+
+    @Autowired
+    public OnlineJudgeServiceImpl(CodeforcesPool codeforcesPool,
+                                  AtCoderPool atCoderPool,
+                                  CodeforcesAccountPool codeforcesAccountPool,
+                                  AtCoderAccountPool atCoderAccountPool,
+                                  SpojAccountPool spojAccountPool,
+                                  @Qualifier("codeforcesProperties") JudgeProperties codeforcesProperties,
+                                  @Qualifier("atcoderProperties") JudgeProperties atcoderProperties,
+                                  RemoteRateLimiter rateLimiter,
+                                  JudgeCircuitBreakers circuitBreakers,
+                                  SubmissionQueue submissionQueue,
+                                  JudgeLatencyStatistics latencyStatistics,
+                                  ScraperHttpClient scraperHttpClient) {
+        this.codeforcesPool = codeforcesPool;
+        this.atCoderPool = atCoderPool;
+        this.codeforcesAccountPool = codeforcesAccountPool;
+        this.atCoderAccountPool = atCoderAccountPool;
+        this.spojAccountPool = spojAccountPool;
+        this.codeforcesProperties = codeforcesProperties;
+        this.atcoderProperties = atcoderProperties;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreakers = circuitBreakers;
+        this.submissionQueue = submissionQueue;
+        this.latencyStatistics = latencyStatistics;
+        this.scraperHttpClient = scraperHttpClient;
+    }
+
+    @Override
+    public List<JudgeStatusModel> getJudgeStatus() {
+        return List.of(
+                toStatus(codeforcesPool, codeforcesAccountPool, codeforcesProperties),
+                toStatus(atCoderPool, atCoderAccountPool, atcoderProperties),
+                toStatus(spojAccountPool)
+        );
+    }
+
+    @Override
+    public Map<String, ScraperHostStatistics> getScraperHttpStatistics() {
+        return scraperHttpClient.getHostStatistics();
+    }
+
+    private JudgeStatusModel toStatus(AbstractDriverPool driverPool, AccountPool accountPool, JudgeProperties properties) {
+        boolean http = properties.getSubmissionEngine() == JudgeProperties.SubmissionEngine.HTTP;
+        return statusBuilder(driverPool.getJudge())
+                .submissionEngine(properties.getSubmissionEngine().name().toLowerCase())
+                // the HTTP engine needs no warm drivers, it is ready as soon as it has accounts
+                .state(http ? (accountPool.getNumberOfAccounts() > 0 ? "READY" : "UNAVAILABLE") : driverPool.getState().name())
+                .drivers(driverPool.getNumberOfDrivers())
+                .busyDrivers(driverPool.getNumberOfBusyDrivers())
+                .waitingForDriver(driverPool.getNumberOfWaitingCallers())
+                .accounts(accountPool.getNumberOfAccounts())
+                .busyAccounts(accountPool.getNumberOfBusyAccounts())
+                .waitingForAccount(accountPool.getNumberOfWaitingCallers())
+                .build();
+    }
+
+    // SPOJ is only submitted to over HTTP, so it has no driver pool
+    private JudgeStatusModel toStatus(SpojAccountPool accountPool) {
+        return statusBuilder(OnlineJudgeType.spoj)
+                .submissionEngine(JudgeProperties.SubmissionEngine.HTTP.name().toLowerCase())
+                .state(accountPool.getNumberOfAccounts() > 0 ? "READY" : "UNAVAILABLE")
+                .accounts(accountPool.getNumberOfAccounts())
+                .busyAccounts(accountPool.getNumberOfBusyAccounts())
+                .waitingForAccount(accountPool.getNumberOfWaitingCallers())
+                .build();
+    }
+
+    /**
+     * Starts the status of a judge with what every judge has: its queue, latencies, rate limits and circuit.
+     */
+    private JudgeStatusModel.JudgeStatusModelBuilder statusBuilder(OnlineJudgeType judge) {
+        CircuitBreaker circuit = circuitBreakers.get(judge);
+        return JudgeStatusModel.builder()
+                .judge(judge)
+                .queuedSubmissions(submissionQueue.getNumberOfQueued(judge))
+                .inFlightSubmissions(submissionQueue.getNumberOfInFlight(judge))
+                .averageSendTimeMs(latencyStatistics.getExpectedSendTime(judge).toMillis())
+                .averageVerdictLatencyMs(latencyStatistics.getExpectedLatency(judge).toMillis())
+                .verdictLatencyP50Ms(toMillis(latencyStatistics.getLatencyPercentile(judge, 50)))
+                .verdictLatencyP90Ms(toMillis(latencyStatistics.getLatencyPercentile(judge, 90)))
+                .verdictLatencyP99Ms(toMillis(latencyStatistics.getLatencyPercentile(judge, 99)))
+                .remainingTokens(rateLimiter.getRemainingTokens(judge))
+                .circuitState(circuit.getState().name())
+                .failureRate(circuit.getFailureRate())
+                .slowCallRate(circuit.getSlowCallRate())
+                .retryAt(circuit.getState() == CircuitBreaker.State.OPEN ? circuit.getRetryAt() : null);
+    }
+
+    private Long toMillis(Duration duration) {
+        return duration == null ? null : duration.toMillis();
+    }
+}
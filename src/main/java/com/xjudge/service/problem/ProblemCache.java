@@ -0,0 +1,92 @@
+package com.xjudge.service.problem;
+
+import com.xjudge.entity.Property;
+import com.xjudge.entity.Section;
+import com.xjudge.model.cache.CacheStatistics;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.problem.ProblemDescription;
+import com.xjudge.model.problem.ProblemModel;
+import com.xjudge.model.problem.RenderedProblemPage;
+import com.xjudge.service.problem.event.ProblemChangedEvent;
+import com.xjudge.util.cache.WeightedLruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the mapped problems, statements and rendered statement pages in memory, weighed by the length of their text (a byte per character
+ * for the Latin-1 statements most judges serve), since a statement never changes once it is scraped. Entries are dropped when the problem is stored again or its solved count moves.
+ */
+@Component
+public class ProblemCache {
+    private final WeightedLruCache<ProblemKey, ProblemModel> models;
+    private final WeightedLruCache<ProblemKey, ProblemDescription> descriptions;
+    private final WeightedLruCache<ProblemKey, RenderedProblemPage> pages;
+
+    @Autowired
+    public ProblemCache(@Value("${problem-cache.max-entries:2000}") int maxEntries,
+                        @Value("${problem-cache.max-size:64MB}") DataSize maxSize) {
+        this.models = new WeightedLruCache<>(maxEntries, maxSize.toBytes() / 4, ProblemCache::weighModel);
+        this.descriptions = new WeightedLruCache<>(maxEntries, maxSize.toBytes(), ProblemCache::weighDescription);
+        this.pages = new WeightedLruCache<>(maxEntries, maxSize.toBytes(), RenderedProblemPage::size);
+    }
+
+    public ProblemModel getModel(OnlineJudgeType ojType, String code, Supplier<ProblemModel> loader) {
+        return models.get(new ProblemKey(ojType, code), loader);
+    }
+
+    public ProblemDescription getDescription(OnlineJudgeType ojType, String code, Supplier<ProblemDescription> loader) {
+        return descriptions.get(new ProblemKey(ojType, code), loader);
+    }
+
+    public RenderedProblemPage getPage(OnlineJudgeType ojType, String code, Supplier<RenderedProblemPage> loader) {
+        return pages.get(new ProblemKey(ojType, code), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProblemChanged(ProblemChangedEvent event) {
+        ProblemKey key = new ProblemKey(event.ojType(), event.code());
+        models.invalidate(key);
+        if (event.statementChanged()) {
+            descriptions.invalidate(key);
+            pages.invalidate(key);
+        }
+    }
+
+    public Map<String, CacheStatistics> getStatistics() {
+        return Map.of("models", models.getStatistics(), "descriptions", descriptions.getStatistics(), "pages", pages.getStatistics());
+    }
+
+    private static long weighModel(ProblemModel model) {
+        long weight = length(model.title()) + length(model.contestName());
+        for (Property property : nullToEmpty(model.properties())) {
+            weight += length(property.getTitle()) + length(property.getContent());
+        }
+        return weight;
+    }
+
+    private static long weighDescription(ProblemDescription description) {
+        long weight = length(description.prependHtml());
+        for (Section section : nullToEmpty(description.sections())) {
+            weight += length(section.getTitle());
+            if (section.getValue() != null) weight += length(section.getValue().getContent());
+        }
+        return weight;
+    }
+
+    private static long length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private record ProblemKey(OnlineJudgeType ojType, String code) {}
+}
@@ -0,0 +1,128 @@
+package com.xjudge.service.problem;
+
+import com.xjudge.entity.Problem;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.problem.ProblemImportResult;
+import com.xjudge.repository.ProblemRepository;
+import com.xjudge.service.scraping.strategy.ScrappingStrategy;
+import com.xjudge.util.circuitbreaker.JudgeCircuitBreakers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports many problems at once. The problems we already have are found with one query per judge, the missing
+ * ones are scraped in parallel on virtual threads, at most {@code problem-import.max-concurrency-per-host}
+ * at a time per judge across all imports, each through the single-flight {@link ProblemScraper}.
+ */
+@Component
+public class ProblemImporter {
+    private static final Logger logger = LoggerFactory.getLogger(ProblemImporter.class);
+    private final ProblemRepository problemRepo;
+    private final ProblemScraper problemScraper;
+    private final Map<OnlineJudgeType, ScrappingStrategy> scrappingStrategies;
+    private final JudgeCircuitBreakers circuitBreakers;
+    private final Map<OnlineJudgeType, Semaphore> hostPermits = new EnumMap<>(OnlineJudgeType.class);
+    private final int maxProblems;
+
+    @Autowired
+    public ProblemImporter(ProblemRepository problemRepo,
+                           ProblemScraper problemScraper,
+                           Map<OnlineJudgeType, ScrappingStrategy> scrappingStrategies,
+                           JudgeCircuitBreakers circuitBreakers,
+                           @Value("${problem-import.max-concurrency-per-host:4}") int maxConcurrencyPerHost,
+                           @Value("${problem-import.max-problems:100}") int maxProblems) {
+        this.problemRepo = problemRepo;
+        this.problemScraper = problemScraper;
+        this.scrappingStrategies = scrappingStrategies;
+        this.circuitBreakers = circuitBreakers;
+        this.maxProblems = maxProblems;
+        for (OnlineJudgeType judge : OnlineJudgeType.values()) {
+            hostPermits.put(judge, new Semaphore(maxConcurrencyPerHost, true));
+        }
+    }
+
+    public List<String> listContestProblems(OnlineJudgeType ojType, String contestId) {
+        ScrappingStrategy strategy = scrappingStrategies.get(ojType);
+        return circuitBreakers.call(ojType, () -> strategy.listContestProblems(contestId));
+    }
+
+    /**
+     * @return one result per distinct problem, in the order they were asked for
+     */
+    public List<ProblemImportResult> importProblems(Map<OnlineJudgeType, ? extends Collection<String>> codesByJudge) {
+        int total = codesByJudge.values().stream().mapToInt(Collection::size).sum();
+        if (total > maxProblems) {
+            throw new XJudgeException("At most " + maxProblems + " problems can be imported at once", ProblemImporter.class.getName(), HttpStatus.BAD_REQUEST);
+        }
+
+        List<ProblemImportResult> results = new ArrayList<>();
+        Map<Integer, Future<ProblemImportResult>> scrapes = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<OnlineJudgeType, ? extends Collection<String>> judgeCodes : codesByJudge.entrySet()) {
+                OnlineJudgeType ojType = judgeCodes.getKey();
+                Set<String> codes = new LinkedHashSet<>(judgeCodes.getValue());
+                Map<String, Problem> stored = problemRepo.findByOnlineJudgeAndCodeIn(ojType, codes)
+                        .stream()
+                        .collect(Collectors.toMap(Problem::getCode, Function.identity(), (first, second) -> first));
+                for (String code : codes) {
+                    Problem problem = stored.get(code);
+                    if (problem != null) {
+                        results.add(new ProblemImportResult(ojType, code, "existing", problem.getId(), problem.getTitle(), null));
+                    } else {
+                        scrapes.put(results.size(), executor.submit(() -> scrap(ojType, code)));
+                        results.add(null);
+                    }
+                }
+            }
+        }
+        scrapes.forEach((index, scrape) -> results.set(index, scrape.resultNow()));
+        return withTitles(results);
+    }
+
+    private ProblemImportResult scrap(OnlineJudgeType ojType, String code) {
+        Semaphore permits = hostPermits.get(ojType);
+        try {
+            permits.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return ProblemImportResult.failed(ojType, code, "Interrupted before the problem was scraped");
+        }
+        try {
+            Long problemId = problemScraper.scrap(ojType, code);
+            return new ProblemImportResult(ojType, code, "imported", problemId, null, null);
+        } catch (RuntimeException exception) {
+            logger.warn("Fail to import {} {} : {}", ojType, code, exception.getMessage());
+            return ProblemImportResult.failed(ojType, code, exception.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Reads the titles of the freshly imported problems in one query.
+     */
+    private List<ProblemImportResult> withTitles(List<ProblemImportResult> results) {
+        List<Long> importedIds = results.stream()
+                .filter(result -> "imported".equals(result.status()))
+                .map(ProblemImportResult::problemId)
+                .toList();
+        if (importedIds.isEmpty()) return results;
+        Map<Long, String> titles = new HashMap<>();
+        problemRepo.findAllById(importedIds).forEach(problem -> titles.put(problem.getId(), problem.getTitle()));
+        return results.stream()
+                .map(result -> "imported".equals(result.status())
+                        ? new ProblemImportResult(result.ojType(), result.code(), result.status(), result.problemId(), titles.get(result.problemId()), null)
+                        : result)
+                .toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.xjudge.service.problem;
+
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.problem.RenderedProblemPage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the {@code problem-description} template once per problem and keeps the page, plain and gzipped,
+ * in the {@link ProblemCache} until the problem is scraped again.
+ */
+@Component
+public class ProblemPageRenderer {
+    private final ProblemService problemService;
+    private final ProblemCache problemCache;
+    private final TemplateEngine templateEngine;
+    private final CacheControl cacheControl;
+
+    @Autowired
+    public ProblemPageRenderer(ProblemService problemService,
+                               ProblemCache problemCache,
+                               TemplateEngine templateEngine,
+                               @Value("${problem-page.max-age:1d}") Duration maxAge) {
+        this.problemService = problemService;
+        this.problemCache = problemCache;
+        this.templateEngine = templateEngine;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    public RenderedProblemPage getPage(String source, String code, HttpServletRequest request, HttpServletResponse response) {
+        OnlineJudgeType ojType = OnlineJudgeType.valueOf(source.toLowerCase());
+        return problemCache.getPage(ojType, code, () -> render(source, code, request, response));
+    }
+
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    private RenderedProblemPage render(String source, String code, HttpServletRequest request, HttpServletResponse response) {
+        // the template links its styles relative to the context path, which only a web context can resolve
+        WebContext context = new WebContext(JakartaServletWebApplication
+                .buildApplication(request.getServletContext())
+                .buildExchange(request, response));
+        context.setVariable("problem", problemService.getProblemDescription(source, code));
+        byte[] html = templateEngine.process("problem-description", context).getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(html);
+        return new RenderedProblemPage(html, gzip(html), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+    }
+
+    private byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        } catch (IOException exception) {
+            throw new XJudgeException("Fail to compress the problem page", ProblemPageRenderer.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return compressed.toByteArray();
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.xjudge.service.problem;
+
+import com.xjudge.entity.Problem;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.entity.Section;
+import com.xjudge.repository.ProblemRepository;
+import com.xjudge.repository.ValueRepository;
+import com.xjudge.service.problem.event.ProblemChangedEvent;
+import com.xjudge.service.scraping.strategy.ScrappingStrategy;
+import com.xjudge.util.SingleFlight;
+import com.xjudge.util.circuitbreaker.JudgeCircuitBreakers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Scrapes and stores the problems we don't have yet. Concurrent misses on the same problem wait for a single
+ * scrape, which is stored in its own transaction so they can read it as soon as it's done. The page is fetched and
+ * parsed outside of any transaction of ours, only the insert holds a connection. Between instances the unique
+ * (code, online_judge) key decides: the instance that loses the insert drops its copy and reads the winner's.
+ */
+@Component
+public class ProblemScraper {
+    private static final Logger logger = LoggerFactory.getLogger(ProblemScraper.class);
+    private final SingleFlight<ProblemKey, Long> scrapes = new SingleFlight<>();
+    private final ProblemRepository problemRepo;
+    private final ValueRepository valueRepo;
+    private final Map<OnlineJudgeType, ScrappingStrategy> scrappingStrategies;
+    private final JudgeCircuitBreakers circuitBreakers;
+    private final TransactionTemplate newTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ProblemScraper(ProblemRepository problemRepo,
+                          ValueRepository valueRepo,
+                          Map<OnlineJudgeType, ScrappingStrategy> scrappingStrategies,
+                          JudgeCircuitBreakers circuitBreakers,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher) {
+        this.problemRepo = problemRepo;
+        this.valueRepo = valueRepo;
+        this.scrappingStrategies = scrappingStrategies;
+        this.circuitBreakers = circuitBreakers;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @return the id of the stored problem, scraped by this call or by the one it waited for
+     */
+    public Long scrap(OnlineJudgeType ojType, String code) {
+        return scrapes.execute(new ProblemKey(ojType, code), () -> insertOrFetch(ojType, code));
+    }
+
+    private Long insertOrFetch(OnlineJudgeType ojType, String code) {
+        // stored by another instance, or by a flight that finished just before this one started
+        Long storedId = newTransaction.execute(status -> problemRepo.findByCodeAndOnlineJudge(code, ojType)
+                .map(Problem::getId)
+                .orElse(null));
+        if (storedId != null) return storedId;
+        ScrappingStrategy strategy = scrappingStrategies.get(ojType);
+        Problem problem = circuitBreakers.call(ojType, () -> strategy.scrap(code));
+        try {
+            return newTransaction.execute(status -> {
+                // sections cascade from the problem, their values don't
+                problem.getSections().stream().map(Section::getValue).forEach(valueRepo::save);
+                Problem saved = problemRepo.saveAndFlush(problem);
+                eventPublisher.publishEvent(new ProblemChangedEvent(ojType, code, true));
+                return saved.getId();
+            });
+        } catch (DataIntegrityViolationException exception) {
+            logger.info("Problem {} {} was stored by another instance first", ojType, code);
+            return newTransaction.execute(status -> problemRepo.findByCodeAndOnlineJudge(code, ojType)
+                    .orElseThrow(() -> exception)
+                    .getId());
+        }
+    }
+
+    private record ProblemKey(OnlineJudgeType ojType, String code) {}
+}
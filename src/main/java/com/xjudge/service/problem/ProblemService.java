@@ -1,8 +1,13 @@
 package com.xjudge.service.problem;
 
+import com.xjudge.entity.Contest;
 import com.xjudge.entity.Problem;
 import com.xjudge.entity.Submission;
+import com.xjudge.model.cache.CacheStatistics;
+import com.xjudge.model.enums.OnlineJudgeType;
 import com.xjudge.model.problem.ProblemDescription;
+import com.xjudge.model.problem.ProblemImportModel;
+import com.xjudge.model.problem.ProblemImportResult;
 import com.xjudge.model.problem.ProblemModel;
 import com.xjudge.model.problem.ProblemsPageModel;
 import com.xjudge.model.submission.SubmissionInfoModel;
@@ -13,6 +18,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 
 import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 
 public interface ProblemService {
@@ -28,6 +36,8 @@ public interface ProblemService {
 
     Submission submit(SubmissionInfoModel info , Authentication authentication);
 
+    Submission submit(SubmissionInfoModel info , Authentication authentication , Contest contest);
+
     SubmissionModel submitClient(SubmissionInfoModel info , Authentication authentication);
 
     Page<ProblemsPageModel> searchByTitle(String title, Pageable pageable);
@@ -38,4 +48,10 @@ public interface ProblemService {
 
     Statistics getStatistics(Principal connectedUser);
 
+    Map<String, CacheStatistics> getCacheStatistics();
+
+    List<ProblemImportResult> importProblems(ProblemImportModel importModel);
+
+    List<ProblemImportResult> importProblems(Map<OnlineJudgeType, ? extends Collection<String>> codesByJudge);
+
 }
@@ -1,14 +1,19 @@
 package com.xjudge.service.problem;
 
 import com.xjudge.entity.Compiler;
+import com.xjudge.entity.Contest;
 import com.xjudge.entity.Problem;
 import com.xjudge.entity.Submission;
 import com.xjudge.entity.User;
 import com.xjudge.exception.XJudgeException;
 import com.xjudge.mapper.ProblemMapper;
 import com.xjudge.mapper.SubmissionMapper;
+import com.xjudge.model.cache.CacheStatistics;
 import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import com.xjudge.model.problem.ProblemDescription;
+import com.xjudge.model.problem.ProblemImportModel;
+import com.xjudge.model.problem.ProblemImportResult;
 import com.xjudge.model.problem.ProblemModel;
 import com.xjudge.model.problem.ProblemsPageModel;
 import com.xjudge.model.submission.SubmissionInfoModel;
@@ -16,36 +21,46 @@ import com.xjudge.model.submission.SubmissionModel;
 import com.xjudge.model.user.Statistics;
 import com.xjudge.repository.ProblemRepository;
 import com.xjudge.service.compiler.CompilerService;
-import com.xjudge.service.scraping.strategy.ScrappingStrategy;
-import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.service.problem.event.ProblemChangedEvent;
 import com.xjudge.service.submission.SubmissionService;
+import com.xjudge.service.submission.event.SubmissionJudgedEvent;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import com.xjudge.service.submission.event.SubmissionQueuedEvent;
+import com.xjudge.service.submission.outbox.SubmissionOutboxService;
 import com.xjudge.service.user.UserService;
+import com.xjudge.util.routing.RouteRequest;
+import com.xjudge.util.submissionqueue.QueuedSubmission;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.Principal;
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 @AllArgsConstructor
 public class ProblemServiceImp implements ProblemService {
 
     private final ProblemRepository problemRepo;
-    private final Map<OnlineJudgeType, ScrappingStrategy> scrappingStrategies;
-    private final Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies;
+    private final ProblemScraper problemScraper;
+    private final ProblemCache problemCache;
+    private final ProblemImporter problemImporter;
+    private final TransactionTemplate transactionTemplate;
     private final SubmissionService submissionService;
     private final SubmissionMapper submissionMapper;
     private final UserService userService;
     private final ProblemMapper problemMapper;
     private final CompilerService compilerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionOutboxService submissionOutboxService;
 
     @Override
     public Page<ProblemsPageModel> getAllProblems(Pageable pageable) {
@@ -60,66 +75,91 @@ public class ProblemServiceImp implements ProblemService {
     }
 
     @Override
-    @Transactional
     public Problem getProblem(String source, String code) {
-        Optional<Problem> problem = problemRepo.findByCodeAndOnlineJudge(code, OnlineJudgeType.valueOf(source.toLowerCase()));
-        return problem.orElseGet(() -> scrapProblem(source, code));
+        OnlineJudgeType ojType = OnlineJudgeType.valueOf(source.toLowerCase());
+        Optional<Problem> problem = problemRepo.findByCodeAndOnlineJudge(code, ojType);
+        if (problem.isPresent()) return problem.get();
+        // never called inside a transaction of ours, so no connection waits on the judge while it scrapes
+        Long problemId = problemScraper.scrap(ojType, code);
+        return problemRepo.findById(problemId).orElseThrow(
+                () -> new XJudgeException("Problem not found", ProblemServiceImp.class.getName(), HttpStatus.NOT_FOUND)
+        );
     }
 
     @Override
-    @Transactional
     public ProblemModel getProblemModel(String source, String code) {
-        return problemMapper.toModel(getProblem(source, code));
-    }
-
-    private Problem scrapProblem(String source, String code) {
-        ScrappingStrategy strategy = scrappingStrategies.get(OnlineJudgeType.valueOf(source.toLowerCase()));
-        Problem problem = strategy.scrap(code);
-        return problemRepo.save(problem);
+        OnlineJudgeType ojType = OnlineJudgeType.valueOf(source.toLowerCase());
+        return problemCache.getModel(ojType, code, () -> {
+            // a miss is scraped before the transaction opens, so no connection waits on the judge
+            Long problemId = problemScraper.scrap(ojType, code);
+            return transactionTemplate.execute(status -> problemMapper.toModel(problemRepo.findById(problemId).orElseThrow(
+                    () -> new XJudgeException("Problem not found", ProblemServiceImp.class.getName(), HttpStatus.NOT_FOUND)
+            )));
+        });
     }
 
     @Override
-    @Transactional
     public ProblemDescription getProblemDescription(String source, String code) {
-        Problem problem = problemRepo.findByCodeAndOnlineJudge(code, OnlineJudgeType.valueOf(source.toLowerCase()))
-                .orElseThrow(
-                        () -> new XJudgeException("Problem not found", ProblemServiceImp.class.getName(), HttpStatus.NOT_FOUND)
-                );
-        return problemMapper.toDescription(problem);
+        OnlineJudgeType ojType = OnlineJudgeType.valueOf(source.toLowerCase());
+        return problemCache.getDescription(ojType, code, () -> transactionTemplate.execute(status -> {
+            Problem problem = problemRepo.findByCodeAndOnlineJudge(code, ojType)
+                    .orElseThrow(
+                            () -> new XJudgeException("Problem not found", ProblemServiceImp.class.getName(), HttpStatus.NOT_FOUND)
+                    );
+            return problemMapper.toDescription(problem);
+        }));
     }
 
     @Override
     public Submission submit(SubmissionInfoModel info , Authentication authentication) {
+        return submit(info , authentication , null);
+    }
+
+    @Override
+    public Submission submit(SubmissionInfoModel info , Authentication authentication , Contest contest) {
+        // a problem we don't have yet is scraped before the transaction opens
+        Long problemId = getProblem(info.ojType().name(), info.code()).getId();
+        return transactionTemplate.execute(status -> saveSubmission(info, authentication, contest, problemId));
+    }
+
+    private Submission saveSubmission(SubmissionInfoModel info , Authentication authentication , Contest contest , Long problemId) {
         User user = userService.findUserByHandle(authentication.getName());
-        Problem problem = getProblem(info.ojType().name(), info.code());
-        Compiler compiler = compilerService.getCompilerByIdValue(info.compiler().getIdValue());
-        Submission submission = setSubmissionData(info , problem , user , compiler);;
-        submissionService.save(submission);
-        SubmissionStrategy strategy = submissionStrategies.get(info.ojType());
-        Submission updatedSubmission = strategy.submit(info);
-        updateSubmissionStatus(submission , updatedSubmission);
+        Problem problem = problemRepo.findById(problemId).orElseThrow(
+                () -> new XJudgeException("Problem not found", ProblemServiceImp.class.getName(), HttpStatus.NOT_FOUND)
+        );
+        Compiler compiler = compilerService.getCompilerByIdValue(info.compiler().getIdValue(), info.ojType());
+        Submission submission = setSubmissionData(info , problem , user , compiler);
+        submission.setContest(contest);
         user.setAttemptedCount(user.getAttemptedCount()+1);
-        if(submission.getVerdict().equalsIgnoreCase("Accepted") && !hasUserSolvedProblem(user, problem)){
+        submission = submissionService.save(submission);
+        submissionOutboxService.pendingSubmit(submission.getId());
+        eventPublisher.publishEvent(new SubmissionQueuedEvent(QueuedSubmission.of(submission)));
+        eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+        return submission;
+    }
+
+    @EventListener
+    @Transactional
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        Submission submission = submissionService.getSubmission(event.submissionId());
+        User user = submission.getUser();
+        Problem problem = submission.getProblem();
+        if(submission.getVerdictCode() == Verdict.ACCEPTED && !hasUserSolvedProblem(user, problem, submission)){
             user.setSolvedCount(user.getSolvedCount()+1);
             problem.setSolvedCount(problem.getSolvedCount()+1);
+            eventPublisher.publishEvent(new ProblemChangedEvent(problem.getOnlineJudge(), problem.getCode(), false));
         }
-        return submissionService.save(submission);
     }
 
-    public boolean hasUserSolvedProblem(User user, Problem problem) {
-        List<Submission> submissions = submissionService.findByUserAndProblem(user, problem);
-        for (Submission submission : submissions) {
-            if (submission.getVerdict().equalsIgnoreCase("Accepted")) {
-                return true;
-            }
-        }
-        return false;
+    public boolean hasUserSolvedProblem(User user, Problem problem, Submission currentSubmission) {
+        return submissionService.hasAcceptedSubmission(user, problem, currentSubmission.getId());
     }
 
     @Override
-    @Transactional
     public SubmissionModel submitClient(SubmissionInfoModel info, Authentication authentication) {
-        return submissionMapper.toModel(submit(info , authentication));
+        Long problemId = getProblem(info.ojType().name(), info.code()).getId();
+        return transactionTemplate.execute(status ->
+                submissionMapper.toModel(saveSubmission(info, authentication, null, problemId)));
     }
 
     @Override
@@ -152,12 +192,29 @@ public class ProblemServiceImp implements ProblemService {
         return new Statistics(user.getSolvedCount(), user.getAttemptedCount());
     }
 
-    private void updateSubmissionStatus(Submission storedSubmission , Submission updatedSubmission){
-        storedSubmission.setSubmissionStatus(updatedSubmission.getSubmissionStatus());
-        storedSubmission.setMemoryUsage(updatedSubmission.getMemoryUsage());
-        storedSubmission.setVerdict(updatedSubmission.getVerdict());
-        storedSubmission.setTimeUsage(updatedSubmission.getTimeUsage());
-        storedSubmission.setRemoteRunId(updatedSubmission.getRemoteRunId());
+    @Override
+    public Map<String, CacheStatistics> getCacheStatistics() {
+        return problemCache.getStatistics();
+    }
+
+    @Override
+    public List<ProblemImportResult> importProblems(ProblemImportModel importModel) {
+        Set<String> codes = new LinkedHashSet<>();
+        if (importModel.contestId() != null && !importModel.contestId().isBlank()) {
+            codes.addAll(problemImporter.listContestProblems(importModel.ojType(), importModel.contestId().trim()));
+        }
+        if (importModel.codes() != null) {
+            importModel.codes().stream().filter(code -> code != null && !code.isBlank()).map(String::trim).forEach(codes::add);
+        }
+        if (codes.isEmpty()) {
+            throw new XJudgeException("Nothing to import, give a contest id or problem codes", ProblemServiceImp.class.getName(), HttpStatus.BAD_REQUEST);
+        }
+        return importProblems(Map.of(importModel.ojType(), codes));
+    }
+
+    @Override
+    public List<ProblemImportResult> importProblems(Map<OnlineJudgeType, ? extends Collection<String>> codesByJudge) {
+        return problemImporter.importProblems(codesByJudge);
     }
 
     private Submission setSubmissionData(SubmissionInfoModel info , Problem problem , User user , Compiler compiler){
@@ -165,12 +222,16 @@ public class ProblemServiceImp implements ProblemService {
                 .remoteRunId("0")
                 .ojType(info.ojType())
                 .solution(info.solutionCode())
+                .sourceHash(RouteRequest.hashSource(info.solutionCode()))
                 .language(info.compiler().getName())
                 .submitTime(Instant.now())
                 .memoryUsage("0 KB")
                 .timeUsage("0 ms")
-                .verdict("Waiting Judge")
-                .submissionStatus("unsubmitted")
+                .verdict("In queue")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("in queue")
                 .isOpen(info.isOpen() == null || info.isOpen())
                 .problem(problem)
                 .user(user)
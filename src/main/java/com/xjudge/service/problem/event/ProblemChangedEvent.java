@@ -0,0 +1,9 @@
+package com.xjudge.service.problem.event;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+
+/**
+ * Published when a stored problem changes, {@code statementChanged} is false when only its counters moved.
+ */
+public record ProblemChangedEvent(OnlineJudgeType ojType, String code, boolean statementChanged) {
+}
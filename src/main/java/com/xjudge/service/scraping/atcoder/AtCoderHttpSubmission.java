@@ -0,0 +1,208 @@
+package com.xjudge.service.scraping.atcoder;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.entity.Submission;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
+import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.util.accountpool.AccountLease;
+import com.xjudge.util.accountpool.AtCoderAccountPool;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Submits to AtCoder with plain HTTP requests instead of a browser. Every account keeps its own
+ * Jsoup session holding the {@code REVEL_SESSION} cookie, the submit form is posted directly and
+ * the run id is read from the submissions page AtCoder redirects to. The cookie alone doesn't prove the
+ * session is alive, so a redirect to the login page drops it and logs in again.
+ */
+@Service
+public class AtCoderHttpSubmission implements SubmissionStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(AtCoderHttpSubmission.class);
+    private static final String BASE_URL = "https://atcoder.jp";
+    private static final String LOGIN_URL = "https://atcoder.jp/login";
+    private static final String SUBMIT_URL = "https://atcoder.jp/contests/%s/submit";
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0";
+    private static final int TIMEOUT_MS = 15_000;
+    private final Map<String, Connection> sessions = new ConcurrentHashMap<>();
+    private final AtCoderAccountPool accountPool;
+    private final AtCoderSplitting splitting;
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final AccountRouter router;
+
+    @Autowired
+    public AtCoderHttpSubmission(AtCoderAccountPool accountPool,
+                                 AtCoderSplitting splitting,
+                                 JudgeSessionStore sessionStore,
+                                 RemoteRateLimiter rateLimiter,
+                                 AccountRouter router) {
+        this.accountPool = accountPool;
+        this.splitting = splitting;
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.router = router;
+    }
+
+    @Override
+    public Submission submit(SubmissionInfoModel data) {
+        Instant submitTime = Instant.now();
+        RouteRequest route = RouteRequest.of(data);
+        try (AccountLease lease = accountPool.acquire(route)) {
+            Connection session = sessions.computeIfAbsent(lease.getUsername(), this::newSession);
+            verifyLogin(session, lease.getAccount());
+            String contestId = splitting.split(data.code())[0];
+            rateLimiter.acquire(OnlineJudgeType.atcoder, lease.getUsername(), RemoteOperation.SUBMIT);
+            Document submissionsPage = submitSolution(session, lease.getAccount(), contestId, data);
+            String remoteId = scrapSubmissionId(submissionsPage);
+            router.onSubmitted(OnlineJudgeType.atcoder, lease.getUsername(), route);
+            logger.info("Remote Id : {}", remoteId);
+            sessionStore.save(OnlineJudgeType.atcoder, lease.getUsername(), session.cookieStore());
+            return setSubmissionData(remoteId, lease.getUsername(), data, submitTime);
+        } catch (Exception exception) {
+            logger.error(exception.getMessage());
+            if (exception instanceof XJudgeException rejected
+                    && (isRejectedLocally(rejected) || isRejectedByJudge(rejected))) throw rejected;
+            return Submission.builder()
+                    .remoteRunId("0")
+                    .ojType(data.ojType())
+                    .solution(data.solutionCode())
+                    .language(data.compiler().getName())
+                    .submitTime(submitTime)
+                    .memoryUsage("0 KB")
+                    .timeUsage("0 ms")
+                    .verdict("Waiting Judge")
+                    .verdictCode(Verdict.IN_QUEUE)
+                    .timeMs(0)
+                    .memoryKb(0)
+                    .submissionStatus("unsubmitted")
+                    .isOpen(data.isOpen() == null || data.isOpen())
+                    .compiler(data.compiler())
+                    .build();
+        }
+    }
+
+    private void verifyLogin(Connection session, JudgeProperties.Account account) throws IOException {
+        if (isLogin(session)) return;
+        rateLimiter.acquire(OnlineJudgeType.atcoder, account.getUsername(), RemoteOperation.LOGIN);
+        Document loginPage = session.newRequest().url(LOGIN_URL).get();
+        session.newRequest()
+                .url(LOGIN_URL)
+                .data("csrf_token", csrfToken(loginPage))
+                .data("username", account.getUsername())
+                .data("password", account.getPassword())
+                .post();
+        if (!isLogin(session)) {
+            throw new XJudgeException("FAIL TO LOGIN", AtCoderHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Document submitSolution(Connection session, JudgeProperties.Account account, String contestId, SubmissionInfoModel data) throws IOException {
+        String url = String.format(SUBMIT_URL, contestId);
+        Document submitPage = session.newRequest().url(url).get();
+        if (isLoginPage(submitPage)) {
+            // the stored session expired on AtCoder's side
+            dropSession(session, account.getUsername());
+            verifyLogin(session, account);
+            submitPage = session.newRequest().url(url).get();
+        }
+        Document response = session.newRequest()
+                .url(url)
+                .data("data.TaskScreenName", data.code())
+                .data("data.LanguageId", data.compiler().getIdValue())
+                .data("sourceCode", data.solutionCode())
+                .data("csrf_token", csrfToken(submitPage))
+                .post();
+        if (isLoginPage(response)) {
+            dropSession(session, account.getUsername());
+            throw new XJudgeException("AtCoder session expired", AtCoderHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        // a successful submit redirects to submissions/me, otherwise the form comes back with an alert
+        if (!response.location().contains("/submissions/me")) {
+            Element alert = response.selectFirst(".alert-danger");
+            if (alert != null) {
+                throw new XJudgeException(alert.text(), AtCoderHttpSubmission.class.getName(), HttpStatus.BAD_REQUEST);
+            }
+            throw new XJudgeException("FAIL_TO_SUBMIT", AtCoderHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return response;
+    }
+
+    private String scrapSubmissionId(Document submissionsPage) {
+        Element score = submissionsPage.selectFirst("tbody tr td.submission-score[data-id]");
+        if (score == null) {
+            throw new XJudgeException("Fail to read the submission id", AtCoderHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return score.attr("data-id");
+    }
+
+    private Connection newSession(String account) {
+        Connection session = Jsoup.newSession().userAgent(USER_AGENT).timeout(TIMEOUT_MS);
+        sessionStore.restore(OnlineJudgeType.atcoder, account, session.cookieStore(), BASE_URL);
+        return session;
+    }
+
+    private boolean isLogin(Connection session) {
+        return session.cookieStore().getCookies().stream()
+                .filter(cookie -> cookie.getName().equals("REVEL_SESSION"))
+                .map(HttpCookie::getValue)
+                .anyMatch(value -> value.contains("UserScreenName") && value.contains("UserName"));
+    }
+
+    private boolean isLoginPage(Document page) {
+        return page.location().startsWith(LOGIN_URL);
+    }
+
+    private void dropSession(Connection session, String account) {
+        session.cookieStore().removeAll();
+        sessionStore.invalidate(OnlineJudgeType.atcoder, account);
+    }
+
+    private String csrfToken(Document page) {
+        Element token = page.selectFirst("input[name=csrf_token]");
+        if (token == null) {
+            throw new XJudgeException("Fail to read the csrf token", AtCoderHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return token.val();
+    }
+
+    private Submission setSubmissionData(String remoteId, String account, SubmissionInfoModel data, Instant submitTime) {
+        return Submission.builder()
+                .remoteRunId(remoteId)
+                .remoteAccount(account)
+                .ojType(data.ojType())
+                .solution(data.solutionCode())
+                .language(data.compiler().getName())
+                .submitTime(submitTime)
+                .memoryUsage("0 KB")
+                .timeUsage("0 ms")
+                .verdict("WJ")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("judging")
+                .isOpen(data.isOpen() == null || data.isOpen())
+                .compiler(data.compiler())
+                .build();
+    }
+}
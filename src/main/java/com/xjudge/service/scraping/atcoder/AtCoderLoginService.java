@@ -1,8 +1,12 @@
 package com.xjudge.service.scraping.atcoder;
 
 import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
 import com.xjudge.service.scraping.codeforces.CodeforcesSubmission;
 import com.xjudge.service.scraping.strategy.LoginService;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import lombok.RequiredArgsConstructor;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Cookie;
 import org.openqa.selenium.WebDriver;
@@ -15,8 +19,10 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 
 @Service
+@RequiredArgsConstructor
 public class AtCoderLoginService implements LoginService {
     private static final String LOGIN_URL ="https://atcoder.jp/login?continue=https://atcoder.jp";
+    private final RemoteRateLimiter rateLimiter;
 
     @Override
     public void verifyLogin(WebDriver driver , String userName , String password){
@@ -26,6 +32,8 @@ public class AtCoderLoginService implements LoginService {
     }
 
     private void login(WebDriver driver , String userName , String password) {
+        // logins have a budget of their own, a run of expired sessions never eats the submit budget
+        rateLimiter.acquire(OnlineJudgeType.atcoder, userName, RemoteOperation.LOGIN);
         try {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
             driver.get(LOGIN_URL);
@@ -45,7 +53,8 @@ public class AtCoderLoginService implements LoginService {
         }
     }
 
-    private boolean isLogin(WebDriver driver) {
+    @Override
+    public boolean isLogin(WebDriver driver) {
         Cookie cookie = driver.manage().getCookieNamed("REVEL_SESSION");
         return cookie != null && cookie.getValue().contains("UserScreenName") && cookie.getValue().contains("UserName");
     }
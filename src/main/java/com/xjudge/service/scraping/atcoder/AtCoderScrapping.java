@@ -1,31 +1,44 @@
 package com.xjudge.service.scraping.atcoder;
 
 import com.xjudge.entity.*;
-import com.xjudge.exception.XJudgeException;
 import com.xjudge.model.enums.OnlineJudgeType;
-import com.xjudge.repository.PropertyRepository;
-import com.xjudge.repository.SectionRepository;
-import com.xjudge.repository.ValueRepository;
 import com.xjudge.service.scraping.strategy.ScrappingStrategy;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.http.ScraperHttpClient;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class AtCoderScrapping implements ScrappingStrategy {
 
-    private final PropertyRepository propertyRepository;
-    private final SectionRepository sectionRepository;
-    private final ValueRepository valueRepository;
+    private final RemoteRateLimiter rateLimiter;
     private final AtCoderSplitting atCoderSplitting;
+    private final ScraperHttpClient httpClient;
+
+    @Override
+    public List<String> listContestProblems(String contestId) {
+        Document tasksDocument;
+        rateLimiter.acquire(OnlineJudgeType.atcoder, RemoteRateLimiter.ANONYMOUS, RemoteOperation.SCRAPE);
+        try {
+            tasksDocument = httpClient.getDocument("https://atcoder.jp/contests/" + contestId + "/tasks");
+        } catch (IOException e) {
+            throw fetchFailure(e, AtCoderScrapping.class.getName());
+        }
+        // the task code is the last segment of the task link, e.g. abc300_a
+        return tasksDocument.select("table tbody tr td:first-child a[href*=/tasks/]")
+                .stream()
+                .map(task -> task.attr("href").substring(task.attr("href").lastIndexOf('/') + 1))
+                .distinct()
+                .toList();
+    }
 
     @Override
     public Problem scrap(String code) {
@@ -33,13 +46,12 @@ public class AtCoderScrapping implements ScrappingStrategy {
         String contestId = atCoderSplitting.split(code)[0];
         String targetProblem = atCoderURL + contestId + "/tasks/" + code;
         String contestLink = atCoderURL + contestId;
-        Connection connection;
         Document problemDocument;
+        rateLimiter.acquire(OnlineJudgeType.atcoder, RemoteRateLimiter.ANONYMOUS, RemoteOperation.SCRAPE);
         try {
-            connection = Jsoup.connect(targetProblem);
-            problemDocument = connection.get();
-        }catch (Exception e){
-            throw new XJudgeException("Problem not found", AtCoderScrapping.class.getName(), HttpStatus.NOT_FOUND);
+            problemDocument = httpClient.getDocument(targetProblem);
+        }catch (IOException e){
+            throw fetchFailure(e, AtCoderScrapping.class.getName());
         }
 
         String problemTitle = problemDocument.select(".col-sm-12 .h2").getFirst().ownText().substring(4);
@@ -51,8 +63,6 @@ public class AtCoderScrapping implements ScrappingStrategy {
                 Property.builder().title("Memory Limit").content(tmLimit[1].substring(14)).spoiler(false).build()
         );
 
-        propertyRepository.saveAll(properties);
-
         Elements parts = problemDocument.select(".lang-en .part");
         List<Section> problemSections = new ArrayList<>();
         int counter = 0;
@@ -63,12 +73,10 @@ public class AtCoderScrapping implements ScrappingStrategy {
                 title = "Sample " + ++counter;
                 content = generateSampleTable(parts.get(i), parts.get(++i));
             }
-            Value value = valueRepository.save(Value.builder().format("HTML").content(content).build());
+            Value value = Value.builder().format("HTML").content(content).build();
             problemSections.add(Section.builder().title(title).value(value).build());
         }
 
-        sectionRepository.saveAll(problemSections);
-
         return Problem.builder()
                 .code(code)
                 .onlineJudge(OnlineJudgeType.atcoder)
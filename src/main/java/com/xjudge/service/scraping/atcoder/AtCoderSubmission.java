@@ -2,12 +2,17 @@ package com.xjudge.service.scraping.atcoder;
 
 import com.xjudge.entity.Submission;
 import com.xjudge.exception.XJudgeException;
-import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
 import com.xjudge.service.scraping.strategy.SubmissionStrategy;
 import com.xjudge.util.driverpool.AtCoderPool;
-import com.xjudge.util.driverpool.WebDriverWrapper;
-import jakarta.annotation.PreDestroy;
+import com.xjudge.util.driverpool.DriverLease;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
@@ -20,56 +25,58 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class AtCoderSubmission implements SubmissionStrategy {
 
     private final AtCoderPool pool;
     private static final String SUBMIT_URL="https://atcoder.jp/contests/%s/submit";
+    private static final int ID_ATTEMPTS = 5;
     private final AtCoderSplitting splitting;
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final AccountRouter router;
     private static final Logger logger = LoggerFactory.getLogger(AtCoderSubmission.class);
 
     @Autowired
     public AtCoderSubmission(AtCoderPool atCoderPool,
-                             AtCoderSplitting splitting){
+                             AtCoderSplitting splitting,
+                             JudgeSessionStore sessionStore,
+                             RemoteRateLimiter rateLimiter,
+                             AccountRouter router){
         this.splitting = splitting;
         this.pool = atCoderPool;
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.router = router;
     }
 
 
     @Override
     public Submission submit(SubmissionInfoModel data) {
-        WebDriverWrapper driverWrapper = pool.getDriverData();
-        WebDriver driver = driverWrapper.getDriver();
+        RouteRequest route = RouteRequest.of(data);
+        DriverLease lease = pool.acquire(route);
+        WebDriver driver = lease.getDriver();
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
         Instant submitTime = Instant.now();
-        try {
+        try (lease) {
+            String account = lease.getDriverWrapper().getUserName();
+            rateLimiter.acquire(OnlineJudgeType.atcoder, account, RemoteOperation.SUBMIT);
             String[] splittedCode = splitting.split(data.code());
             String contestId = splittedCode[0];
             String url = String.format(SUBMIT_URL, contestId);
             driver.get(url);
-            submitHelper(driver, wait, data, driverWrapper);
+            submitHelper(driver, wait, data);
             String remoteId = getSubmissionId(driver);
             logger.info("Remote Id : {}", remoteId);
-            SubmissionScrapedData submissionScrapedData = scrapSubmissionData(driver, remoteId);
-            while (submissionScrapedData.getVerdict().equalsIgnoreCase("WJ")) {
-                try {
-                    submissionScrapedData = scrapSubmissionData(driver, remoteId);
-                    logger.info("data {}", submissionScrapedData);
-                    logger.info("==================");
-                } catch (Exception e) {
-                    logger.info(e.getMessage());
-                }
-            }
-            Submission submission = setSubmissionData(submissionScrapedData, data , submitTime);
-            pool.releaseDriver(driverWrapper);
-            return submission;
+            router.onSubmitted(OnlineJudgeType.atcoder, account, route);
+            sessionStore.save(OnlineJudgeType.atcoder, account, driver.manage().getCookies());
+            return setSubmissionData(remoteId, account, data , submitTime);
         }
         catch (Exception e){
-            pool.releaseDriver(driverWrapper);
             logger.info(e.getMessage());
+            if (e instanceof XJudgeException rejected
+                    && (isRejectedLocally(rejected) || isRejectedByJudge(rejected))) throw rejected;
             return Submission.builder()
                     .remoteRunId("0")
                     .ojType(data.ojType())
@@ -79,6 +86,9 @@ public class AtCoderSubmission implements SubmissionStrategy {
                     .memoryUsage("0 KB")
                     .timeUsage("0 ms")
                     .verdict("Waiting Judge")
+                    .verdictCode(Verdict.IN_QUEUE)
+                    .timeMs(0)
+                    .memoryKb(0)
                     .submissionStatus("unsubmitted")
                     .isOpen(data.isOpen() == null || data.isOpen())
                     .compiler(data.compiler())
@@ -87,60 +97,22 @@ public class AtCoderSubmission implements SubmissionStrategy {
     }
 
 
-    private String getSubmissionId(WebDriver driver){
-        try {
-            WebElement firstRow = driver.findElement(By.tagName("tbody")).findElement(By.tagName("tr"));
-            WebElement submissionScore = firstRow.findElements(By.tagName("td")).get(4);
-            return submissionScore.getAttribute("data-id");
-        }catch (Exception ex){
-            logger.info(ex.getMessage());
-            if(ex instanceof NoSuchElementException || ex instanceof TimeoutException){
-                return getSubmissionId(driver);
-            }
-        }
-        return null;
-    }
-
-    private SubmissionScrapedData scrapSubmissionData(WebDriver driver , String remoteId){
-        List<WebElement> rows = driver.findElements(By.xpath("//tbody//tr"));
-        logger.info("===============");
-        logger.info("total rows : {}", rows.size());
-        for(WebElement row : rows){
-            WebElement score = row.findElement(By.className("submission-score"));
-            if(score.getAttribute("data-id").equalsIgnoreCase(remoteId)){
-                List<WebElement> tds = row.findElements(By.tagName("td"));
-                logger.info("Total tds : {}", tds.size());
-                logger.info("verdict {}" ,tds.get(6).getText());
-                if(tds.size() >= 10){
-                    return  SubmissionScrapedData
-                            .builder()
-                            .remoteId(remoteId)
-                            .time(tds.get(7).getText())
-                            .memory(tds.get(8).getText())
-                            .verdict(tds.get(6).getText())
-                            .build();
-                }
-                else if(tds.get(6).getText().equals("CE")){
-                    return  SubmissionScrapedData
-                            .builder()
-                            .remoteId(remoteId)
-                            .time("0")
-                            .memory("0")
-                            .verdict(tds.get(6).getText())
-                            .build();
-                }
+    private String getSubmissionId(WebDriver driver) throws InterruptedException {
+        for (int attempt = 0; attempt < ID_ATTEMPTS; attempt++) {
+            try {
+                WebElement firstRow = driver.findElement(By.tagName("tbody")).findElement(By.tagName("tr"));
+                WebElement submissionScore = firstRow.findElements(By.tagName("td")).get(4);
+                return submissionScore.getAttribute("data-id");
+            } catch (Exception ex) {
+                logger.info(ex.getMessage());
+                if (!(ex instanceof NoSuchElementException || ex instanceof TimeoutException)) break;
             }
+            Thread.sleep(200L << attempt);
         }
-        return  SubmissionScrapedData
-                .builder()
-                .remoteId(remoteId)
-                .time("0")
-                .memory("0")
-                .verdict("WJ")
-                .build();
+        throw new XJudgeException("Fail to read the submission id", AtCoderSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    private void submitHelper(WebDriver driver , WebDriverWait wait , SubmissionInfoModel data, WebDriverWrapper driverWrapper){
+    private void submitHelper(WebDriver driver , WebDriverWait wait , SubmissionInfoModel data){
         try {
             wait.until(ExpectedConditions.visibilityOfElementLocated(By.name("data.LanguageId")));
             Select taskNameSelect = new Select(driver.findElement(By.name("data.TaskScreenName")));
@@ -167,26 +139,29 @@ public class AtCoderSubmission implements SubmissionStrategy {
             try {
                 System.out.println(e.getMessage());
                 if(e instanceof NoSuchElementException || e instanceof StaleElementReferenceException){
-                     submitHelper(driver , wait ,data , driverWrapper);
+                     submitHelper(driver , wait ,data);
                 }
             } catch (Exception ex) {
-                pool.releaseDriver(driverWrapper);
                 throw new XJudgeException("FAIL_TO_SUBMIT" , AtCoderSubmission.class.getName(),HttpStatus.INTERNAL_SERVER_ERROR);
             }
         }
     }
 
-    private Submission setSubmissionData(SubmissionScrapedData submissionScrapedData , SubmissionInfoModel data , Instant submitTime){
+    private Submission setSubmissionData(String remoteId , String account , SubmissionInfoModel data , Instant submitTime){
         return Submission.builder()
-                .remoteRunId(submissionScrapedData.getRemoteId())
+                .remoteRunId(remoteId)
+                .remoteAccount(account)
                 .ojType(data.ojType())
                 .solution(data.solutionCode())
                 .language(data.compiler().getName())
                 .submitTime(submitTime)
-                .memoryUsage(submissionScrapedData.getMemory())
-                .timeUsage(submissionScrapedData.getTime())
-                .verdict((submissionScrapedData.getVerdict().equals("AC")? "Accepted" : submissionScrapedData.getVerdict()))
-                .submissionStatus("submitted")
+                .memoryUsage("0 KB")
+                .timeUsage("0 ms")
+                .verdict("WJ")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("judging")
                 .isOpen(data.isOpen() == null || data.isOpen())
                 .compiler(data.compiler())
                 .build();
@@ -0,0 +1,94 @@
+package com.xjudge.service.scraping.atcoder;
+
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import com.xjudge.util.UsageParser;
+import lombok.RequiredArgsConstructor;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class AtCoderVerdict implements VerdictStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(AtCoderVerdict.class);
+    private static final String STATUS_URL = "https://atcoder.jp/contests/%s/submissions/me";
+    private static final DateTimeFormatter SUBMIT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxx");
+    private final AtCoderSplitting splitting;
+
+    @Override
+    public Map<String, SubmissionScrapedData> fetchVerdicts(List<PendingSubmission> submissions, Map<String, String> cookies) {
+        // AtCoder lists submissions per contest, so one page is fetched for each contest with pending runs
+        Map<String, List<PendingSubmission>> byContest = submissions.stream()
+                .collect(Collectors.groupingBy(submission -> splitting.split(submission.problemCode())[0]));
+        Map<String, SubmissionScrapedData> verdicts = new HashMap<>();
+        int failedContests = 0;
+        for (String contestId : byContest.keySet()) {
+            Document statusDocument;
+            try {
+                statusDocument = Jsoup.connect(String.format(STATUS_URL, contestId)).cookies(cookies).get();
+            } catch (IOException e) {
+                // the runs of this contest are polled again next time, the other contests still get their verdicts
+                logger.warn("Fail to fetch the status page of {} : {}", contestId, e.getMessage());
+                failedContests++;
+                continue;
+            }
+            for (Element score : statusDocument.select("td.submission-score[data-id]")) {
+                if (score.parent() == null) continue;
+                String remoteId = score.attr("data-id");
+                Elements tds = score.parent().select("td");
+                String verdict = tds.get(6).text();
+                String time = tds.size() >= 10 ? tds.get(7).text() : "0";
+                String memory = tds.size() >= 10 ? tds.get(8).text() : "0";
+                verdicts.put(remoteId, SubmissionScrapedData.builder()
+                        .remoteId(remoteId)
+                        .time(time)
+                        .memory(memory)
+                        .verdict(verdict.equals("AC") ? "Accepted" : verdict)
+                        .verdictCode(Verdict.parse(verdict))
+                        .testNumber(Verdict.parseTestNumber(verdict))
+                        .timeMs(UsageParser.parseTimeMs(time))
+                        .memoryKb(UsageParser.parseMemoryKb(memory))
+                        .problemCode(problemCode(tds.get(1)))
+                        .submitTime(submitTime(tds.getFirst()))
+                        .build());
+            }
+        }
+        if (failedContests > 0 && failedContests == byContest.size()) {
+            throw new XJudgeException("Fail to fetch the status page", AtCoderVerdict.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return verdicts;
+    }
+
+    private String problemCode(Element task) {
+        Element link = task.selectFirst("a[href*=/tasks/]");
+        if (link == null) return null;
+        return link.attr("href").substring(link.attr("href").lastIndexOf('/') + 1);
+    }
+
+    private Instant submitTime(Element cell) {
+        try {
+            return OffsetDateTime.parse(cell.text(), SUBMIT_TIME).toInstant();
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+}
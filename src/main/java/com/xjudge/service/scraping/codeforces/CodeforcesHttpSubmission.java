@@ -0,0 +1,199 @@
+package com.xjudge.service.scraping.codeforces;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.entity.Submission;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
+import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.util.accountpool.AccountLease;
+import com.xjudge.util.accountpool.CodeforcesAccountPool;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Submits to Codeforces with plain HTTP requests instead of a browser. Every account keeps its own
+ * Jsoup session (cookie jar), logs in once through the {@code /enter} form and then posts the
+ * submit form directly, reading the run id from the status page it gets redirected to.
+ */
+@Service
+public class CodeforcesHttpSubmission implements SubmissionStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(CodeforcesHttpSubmission.class);
+    private static final String BASE_URL = "https://codeforces.com";
+    private static final String LOGIN_URL = "https://codeforces.com/enter";
+    private static final String SUBMIT_URL = "https://codeforces.com/problemset/submit";
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0";
+    private static final int TIMEOUT_MS = 15_000;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Connection> sessions = new ConcurrentHashMap<>();
+    private final CodeforcesAccountPool accountPool;
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final AccountRouter router;
+
+    @Autowired
+    public CodeforcesHttpSubmission(CodeforcesAccountPool accountPool, JudgeSessionStore sessionStore,
+                                    RemoteRateLimiter rateLimiter, AccountRouter router) {
+        this.accountPool = accountPool;
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.router = router;
+    }
+
+    @Override
+    public Submission submit(SubmissionInfoModel info) {
+        Instant submitTime = Instant.now();
+        RouteRequest route = RouteRequest.of(info);
+        try (AccountLease lease = accountPool.acquire(route)) {
+            Connection session = sessions.computeIfAbsent(lease.getUsername(), this::newSession);
+            Document submitPage = verifyLogin(session, lease.getAccount());
+            rateLimiter.acquire(OnlineJudgeType.codeforces, lease.getUsername(), RemoteOperation.SUBMIT);
+            Document statusPage = submitSolution(session, submitPage, info);
+            String remoteId = scrapSubmissionId(statusPage);
+            router.onSubmitted(OnlineJudgeType.codeforces, lease.getUsername(), route);
+            sessionStore.save(OnlineJudgeType.codeforces, lease.getUsername(), session.cookieStore());
+            return setSubmissionData(remoteId, lease.getUsername(), info, submitTime);
+        } catch (Exception exception) {
+            logger.error(exception.getMessage());
+            if (exception instanceof XJudgeException rejected
+                    && (isRejectedLocally(rejected) || isRejectedByJudge(rejected))) throw rejected;
+            return Submission.builder()
+                    .remoteRunId("0")
+                    .ojType(info.ojType())
+                    .solution(info.solutionCode())
+                    .language(info.compiler().getName())
+                    .submitTime(submitTime)
+                    .memoryUsage("0 KB")
+                    .timeUsage("0 ms")
+                    .verdict("Waiting Judge")
+                    .verdictCode(Verdict.IN_QUEUE)
+                    .timeMs(0)
+                    .memoryKb(0)
+                    .submissionStatus("unsubmitted")
+                    .isOpen(info.isOpen() == null || info.isOpen())
+                    .compiler(info.compiler())
+                    .build();
+        }
+    }
+
+    private Document verifyLogin(Connection session, JudgeProperties.Account account) throws IOException {
+        Document submitPage = session.newRequest().url(SUBMIT_URL).get();
+        if (isLogin(submitPage)) return submitPage;
+
+        rateLimiter.acquire(OnlineJudgeType.codeforces, account.getUsername(), RemoteOperation.LOGIN);
+        Document loginPage = session.newRequest().url(LOGIN_URL).get();
+        session.newRequest()
+                .url(LOGIN_URL)
+                .data("csrf_token", csrfToken(loginPage))
+                .data("action", "enter")
+                .data("ftaa", randomToken(9))
+                .data("bfaa", randomToken(16))
+                .data("handleOrEmail", account.getUsername())
+                .data("password", account.getPassword())
+                .data("remember", "on")
+                .post();
+
+        submitPage = session.newRequest().url(SUBMIT_URL).get();
+        if (!isLogin(submitPage)) {
+            throw new XJudgeException("FAIL TO LOGIN", CodeforcesHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return submitPage;
+    }
+
+    private Document submitSolution(Connection session, Document submitPage, SubmissionInfoModel info) throws IOException {
+        String csrfToken = csrfToken(submitPage);
+        Document response = session.newRequest()
+                .url(SUBMIT_URL + "?csrf_token=" + csrfToken)
+                .data("csrf_token", csrfToken)
+                .data("ftaa", randomToken(9))
+                .data("bfaa", randomToken(16))
+                .data("action", "submitSolutionFormSubmitted")
+                .data("submittedProblemCode", info.code())
+                .data("programTypeId", info.compiler().getIdValue())
+                .data("source", info.solutionCode())
+                .data("tabSize", "4")
+                .data("sourceFile", "")
+                .post();
+        // a successful submit redirects to the status page, otherwise the form comes back with the reason
+        if (response.location().contains("/submit")) {
+            Element error = response.selectFirst("span.error");
+            if (error != null) {
+                throw new XJudgeException(error.text(), CodeforcesHttpSubmission.class.getName(), HttpStatus.BAD_REQUEST);
+            }
+            throw new XJudgeException("Fail to submit !", CodeforcesHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return response;
+    }
+
+    private String scrapSubmissionId(Document statusPage) {
+        Element row = statusPage.selectFirst("tr[data-submission-id]");
+        if (row == null) {
+            throw new XJudgeException("Fail to read the submission id", CodeforcesHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return row.attr("data-submission-id");
+    }
+
+    private Connection newSession(String account) {
+        Connection session = Jsoup.newSession().userAgent(USER_AGENT).timeout(TIMEOUT_MS);
+        sessionStore.restore(OnlineJudgeType.codeforces, account, session.cookieStore(), BASE_URL);
+        return session;
+    }
+
+    private boolean isLogin(Document page) {
+        return !page.location().contains("/enter") && page.selectFirst("a[href*=logout]") != null;
+    }
+
+    private String csrfToken(Document page) {
+        Element token = page.selectFirst("input[name=csrf_token]");
+        if (token == null) {
+            throw new XJudgeException("Fail to read the csrf token", CodeforcesHttpSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return token.val();
+    }
+
+    private String randomToken(int bytes) {
+        byte[] token = new byte[bytes];
+        random.nextBytes(token);
+        return HexFormat.of().formatHex(token);
+    }
+
+    private Submission setSubmissionData(String remoteId, String account, SubmissionInfoModel info, Instant submitTime) {
+        return Submission.builder()
+                .remoteRunId(remoteId)
+                .remoteAccount(account)
+                .ojType(info.ojType())
+                .solution(info.solutionCode())
+                .language(info.compiler().getName())
+                .submitTime(submitTime)
+                .memoryUsage("0 KB")
+                .timeUsage("0 ms")
+                .verdict("In queue")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("judging")
+                .isOpen(info.isOpen() == null || info.isOpen())
+                .compiler(info.compiler())
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package com.xjudge.service.scraping.codeforces;
 
 import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
 import com.xjudge.service.scraping.strategy.LoginService;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import lombok.RequiredArgsConstructor;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -13,10 +17,12 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 
 @Service
+@RequiredArgsConstructor
 public class CodeforcesLoginService implements LoginService {
     private static final Logger logger = LoggerFactory.getLogger(CodeforcesLoginService.class);
     private static final String SUBMIT_URL="https://codeforces.com/problemset/submit";
     private static final String LOGIN_URL="https://codeforces.com/enter?back=/problemset/submit";
+    private final RemoteRateLimiter rateLimiter;
 
     public void verifyLogin(WebDriver driver , String USERNAME , String PASSWORD) {
         if (!isLogin(driver)) login(driver , USERNAME , PASSWORD);
@@ -24,6 +30,8 @@ public class CodeforcesLoginService implements LoginService {
     }
 
     private void login(WebDriver driver , String USERNAME , String PASSWORD) {
+        // logins have a budget of their own, a run of expired sessions never eats the submit budget
+        rateLimiter.acquire(OnlineJudgeType.codeforces, USERNAME, RemoteOperation.LOGIN);
         try {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
             driver.get(LOGIN_URL);
@@ -44,7 +52,8 @@ public class CodeforcesLoginService implements LoginService {
         }
     }
 
-    private boolean isLogin(WebDriver driver) {
+    @Override
+    public boolean isLogin(WebDriver driver) {
         Cookie cookie = driver.manage().getCookieNamed("X-User-Sha1");
         return cookie != null && !cookie.getValue().isEmpty();
     }
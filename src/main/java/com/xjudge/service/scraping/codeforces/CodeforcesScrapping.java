@@ -1,18 +1,15 @@
 package com.xjudge.service.scraping.codeforces;
 
 import com.xjudge.entity.*;
-import com.xjudge.exception.XJudgeException;
 import com.xjudge.model.enums.OnlineJudgeType;
-import com.xjudge.repository.PropertyRepository;
-import com.xjudge.repository.SectionRepository;
-import com.xjudge.repository.ValueRepository;
 import com.xjudge.service.scraping.strategy.ScrappingStrategy;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.http.ScraperHttpClient;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -23,10 +20,25 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CodeforcesScrapping implements ScrappingStrategy {
 
-    private final PropertyRepository propertyRepository;
-    private final SectionRepository sectionRepository;
-    private final ValueRepository valueRepository;
+    private final RemoteRateLimiter rateLimiter;
     private final CodeForcesSplitting codeForcesSplitting;
+    private final ScraperHttpClient httpClient;
+
+    @Override
+    public List<String> listContestProblems(String contestId) {
+        Document contestDocument;
+        rateLimiter.acquire(OnlineJudgeType.codeforces, RemoteRateLimiter.ANONYMOUS, RemoteOperation.SCRAPE);
+        try {
+            contestDocument = httpClient.getDocument("https://codeforces.com/contest/" + contestId);
+        } catch (IOException e) {
+            throw fetchFailure(e, CodeforcesScrapping.class.getName());
+        }
+        return contestDocument.select("table.problems td.id a")
+                .stream()
+                .map(index -> contestId + index.text().trim())
+                .distinct()
+                .toList();
+    }
 
     @Override
     public Problem scrap(String code) {
@@ -38,10 +50,11 @@ public class CodeforcesScrapping implements ScrappingStrategy {
         String contestLink = URL + "/contest/" + contestId;
         Document problemDocument;
 
+        rateLimiter.acquire(OnlineJudgeType.codeforces, RemoteRateLimiter.ANONYMOUS, RemoteOperation.SCRAPE);
         try {
-            problemDocument = Jsoup.connect(targetProblem).get();
+            problemDocument = httpClient.getDocument(targetProblem);
         } catch (IOException e) {
-            throw new XJudgeException("Problem not found", CodeforcesScrapping.class.getName(), HttpStatus.NOT_FOUND);
+            throw fetchFailure(e, CodeforcesScrapping.class.getName());
         }
 
         Elements htmlSections = problemDocument.select(".problem-statement > div");
@@ -55,8 +68,6 @@ public class CodeforcesScrapping implements ScrappingStrategy {
                 Property.builder().title("Output").content(htmlSections.getFirst().select(".output-file").text().substring(7)).spoiler(false).build()
         );
 
-        propertyRepository.saveAll(properties);
-
         List<Section> problemSections = new ArrayList<>();
         for (int i = 1; i < htmlSections.size(); i++) {
             String title = htmlSections.get(i).select(".section-title").text();
@@ -64,12 +75,10 @@ public class CodeforcesScrapping implements ScrappingStrategy {
             if (title.contains("Example")) {
                 content = generateSampleTable(htmlSections.get(i));
             }
-            Value value = valueRepository.save(Value.builder().format("HTML").content(content).build());
+            Value value = Value.builder().format("HTML").content(content).build();
             problemSections.add(Section.builder().title(title).value(value).build());
         }
 
-        sectionRepository.saveAll(problemSections);
-
         return Problem.builder()
                 .code(contestId+problemId)
                 .onlineJudge(OnlineJudgeType.codeforces)
@@ -2,11 +2,17 @@ package com.xjudge.service.scraping.codeforces;
 
 import com.xjudge.entity.Submission;
 import com.xjudge.exception.XJudgeException;
-import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
 import com.xjudge.service.scraping.strategy.SubmissionStrategy;
 import com.xjudge.util.driverpool.CodeforcesPool;
-import com.xjudge.util.driverpool.WebDriverWrapper;
+import com.xjudge.util.driverpool.DriverLease;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
@@ -18,42 +24,47 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 
 @Service
 public class CodeforcesSubmission implements SubmissionStrategy {
+    private static final String SUBMIT_URL = "https://codeforces.com/problemset/submit";
+    private static final int ID_ATTEMPTS = 5;
     private final CodeforcesPool driverPool;
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final AccountRouter router;
     private static final Logger logger = LoggerFactory.getLogger(CodeforcesSubmission.class);
 
     @Autowired
-    public CodeforcesSubmission(CodeforcesPool codeForcesPool) {
+    public CodeforcesSubmission(CodeforcesPool codeForcesPool, JudgeSessionStore sessionStore,
+                                RemoteRateLimiter rateLimiter, AccountRouter router) {
         this.driverPool = codeForcesPool;
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.router = router;
     }
 
     @Override
     public Submission submit(SubmissionInfoModel info) {
-        WebDriverWrapper driverWrapper = driverPool.getDriverData();
-        WebDriver driver= driverWrapper.getDriver();
+        RouteRequest route = RouteRequest.of(info);
+        DriverLease lease = driverPool.acquire(route);
+        WebDriver driver= lease.getDriver();
         WebDriverWait wait = new WebDriverWait(driver , Duration.ofSeconds(10));
         Instant submitTime = Instant.now();
-        try {
+        try (lease) {
+            String account = lease.getDriverWrapper().getUserName();
+            rateLimiter.acquire(OnlineJudgeType.codeforces, account, RemoteOperation.SUBMIT);
+            driver.get(SUBMIT_URL);
             wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("submit-form")));
-            submitHelper(driver , wait ,info , driverWrapper);
+            submitHelper(driver , wait ,info);
             String id = getSubmissionId(driver);
-            SubmissionScrapedData data = scrapSubmissionResult(driver , wait , id);
-            while (data == null || data.getVerdict().contains("queue") || data.getVerdict().contains("Running")) {
-                try {
-                    data = scrapSubmissionResult(driver , wait , id);
-                }catch (Exception e){
-                    logger.info(e.getMessage());
-                }
-            }
-            Submission submission = setSubmissionData(data , info , submitTime);
-            driverPool.releaseDriver(driverWrapper);
-            return submission;
+            router.onSubmitted(OnlineJudgeType.codeforces, account, route);
+            sessionStore.save(OnlineJudgeType.codeforces, account, driver.manage().getCookies());
+            return setSubmissionData(id , account , info , submitTime);
         } catch (Exception exception) {
             logger.error(exception.getMessage());
-            driverPool.releaseDriver(driverWrapper);
+            if (exception instanceof XJudgeException rejected
+                    && (isRejectedLocally(rejected) || isRejectedByJudge(rejected))) throw rejected;
             return Submission.builder()
                     .remoteRunId("0")
                     .ojType(info.ojType())
@@ -63,6 +74,9 @@ public class CodeforcesSubmission implements SubmissionStrategy {
                     .memoryUsage("0 KB")
                     .timeUsage("0 ms")
                     .verdict("Waiting Judge")
+                    .verdictCode(Verdict.IN_QUEUE)
+                    .timeMs(0)
+                    .memoryKb(0)
                     .submissionStatus("unsubmitted")
                     .isOpen(info.isOpen() == null || info.isOpen())
                     .compiler(info.compiler())
@@ -71,35 +85,17 @@ public class CodeforcesSubmission implements SubmissionStrategy {
     }
 
 
-    private SubmissionScrapedData scrapSubmissionResult(WebDriver driver , WebDriverWait wait , String remoteId) {
-        driver.navigate().refresh();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("status-frame-datatable")));
-        List<WebElement> rows = driver.findElements(By.className("highlighted-row"));
-        WebElement submissionRow = rows.stream()
-                .filter(row -> row.getText().contains(remoteId))
-                .findFirst()
-                .orElseGet(()->null);
-        return(submissionRow != null)? SubmissionScrapedData
-                .builder()
-                .remoteId(remoteId)
-                .time(submissionRow.findElement(By.className("time-consumed-cell")).getText())
-                .memory(submissionRow.findElement(By.className("memory-consumed-cell")).getText())
-                .verdict(submissionRow.findElement(By.className("status-cell")).getText())
-                .build() : null;
-    }
-
-
-    private String getSubmissionId(WebDriver driver){
-        String id = null;
-        while(id == null){
+    private String getSubmissionId(WebDriver driver) throws InterruptedException {
+        for (int attempt = 0; attempt < ID_ATTEMPTS; attempt++) {
             try {
-                id = scrapSubmissionId(driver);
+                return scrapSubmissionId(driver);
             }
             catch (Exception e){
                 logger.error(e.getMessage());
             }
+            Thread.sleep(200L << attempt);
         }
-        return id;
+        throw new XJudgeException("Fail to read the submission id", CodeforcesSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
 
@@ -109,7 +105,7 @@ public class CodeforcesSubmission implements SubmissionStrategy {
     }
 
 
-    private void submitHelper(WebDriver driver , WebDriverWait wait , SubmissionInfoModel info , WebDriverWrapper driverWrapper) {
+    private void submitHelper(WebDriver driver , WebDriverWait wait , SubmissionInfoModel info) {
         try {
             // get submission elements
             WebElement submittedProblemCode = driver.findElement(By.name("submittedProblemCode"));
@@ -127,39 +123,43 @@ public class CodeforcesSubmission implements SubmissionStrategy {
         } catch (Exception exception) {
             logger.error(exception.getMessage());
             if(exception instanceof NoSuchElementException || exception instanceof StaleElementReferenceException){
-                submitHelper(driver , wait , info , driverWrapper);
+                submitHelper(driver , wait , info);
             }
             else{
-                checkAlert(wait , driverWrapper);
+                checkAlert(wait);
             }
 
         }
     }
 
-    private void checkAlert(WebDriverWait wait ,WebDriverWrapper driverWrapper){
+    private void checkAlert(WebDriverWait wait){
+        WebElement webElement;
         try {
-            WebElement webElement = wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("shiftUp")));
-            driverPool.releaseDriver(driverWrapper);
-            throw new XJudgeException(webElement.getText(), CodeforcesSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+            webElement = wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("shiftUp")));
         }
         catch (Exception exception2) {
             logger.info(exception2.getMessage());
-            driverPool.releaseDriver(driverWrapper);
             throw new XJudgeException("Fail to submit !", CodeforcesSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        // the judge shows why it refused the source, such as the same code sent before
+        throw new XJudgeException(webElement.getText(), CodeforcesSubmission.class.getName(), HttpStatus.BAD_REQUEST);
     }
 
-    private Submission setSubmissionData(SubmissionScrapedData data , SubmissionInfoModel info , Instant submitTime){
+    private Submission setSubmissionData(String remoteId , String account , SubmissionInfoModel info , Instant submitTime){
         return Submission.builder()
-                .remoteRunId(data.getRemoteId())
+                .remoteRunId(remoteId)
+                .remoteAccount(account)
                 .ojType(info.ojType())
                 .solution(info.solutionCode())
                 .language(info.compiler().getName())
                 .submitTime(submitTime)
-                .memoryUsage(data.getMemory())
-                .timeUsage(data.getTime())
-                .verdict(data.getVerdict())
-                .submissionStatus("submitted")
+                .memoryUsage("0 KB")
+                .timeUsage("0 ms")
+                .verdict("In queue")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("judging")
                 .isOpen(info.isOpen() == null || info.isOpen())
                 .compiler(info.compiler())
                 .build();
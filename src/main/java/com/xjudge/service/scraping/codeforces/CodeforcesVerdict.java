@@ -0,0 +1,81 @@
+package com.xjudge.service.scraping.codeforces;
+
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import com.xjudge.util.UsageParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class CodeforcesVerdict implements VerdictStrategy {
+    private static final String STATUS_URL = "https://codeforces.com/problemset/status?my=on";
+    private static final Pattern PROBLEM_LINK = Pattern.compile("/(?:problemset/problem|contest)/(\\d+)/(?:problem/)?(\\w+)");
+    // times are shown to the minute in the timezone of the account, Moscow unless it was changed
+    private static final DateTimeFormatter SUBMIT_TIME = DateTimeFormatter.ofPattern("MMM/dd/yyyy HH:mm", Locale.ENGLISH)
+            .withZone(ZoneId.of("Europe/Moscow"));
+
+    @Override
+    public Map<String, SubmissionScrapedData> fetchVerdicts(List<PendingSubmission> submissions, Map<String, String> cookies) {
+        Document statusDocument;
+        try {
+            statusDocument = Jsoup.connect(STATUS_URL).cookies(cookies).get();
+        } catch (IOException e) {
+            throw new XJudgeException("Fail to fetch the status page", CodeforcesVerdict.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Map<String, SubmissionScrapedData> verdicts = new HashMap<>();
+        for (Element row : statusDocument.select("tr[data-submission-id]")) {
+            String remoteId = row.attr("data-submission-id");
+            String verdict = row.select(".status-cell").text();
+            String time = row.select(".time-consumed-cell").text();
+            String memory = row.select(".memory-consumed-cell").text();
+            verdicts.put(remoteId, SubmissionScrapedData.builder()
+                    .remoteId(remoteId)
+                    .time(time)
+                    .memory(memory)
+                    .verdict(verdict)
+                    .verdictCode(Verdict.parse(verdict))
+                    .testNumber(Verdict.parseTestNumber(verdict))
+                    .timeMs(UsageParser.parseTimeMs(time))
+                    .memoryKb(UsageParser.parseMemoryKb(memory))
+                    .problemCode(problemCode(row))
+                    .submitTime(submitTime(row))
+                    .build());
+        }
+        return verdicts;
+    }
+
+    private String problemCode(Element row) {
+        Element link = row.selectFirst("td[data-problemId] a");
+        if (link == null) return null;
+        Matcher matcher = PROBLEM_LINK.matcher(link.attr("href"));
+        return matcher.find() ? matcher.group(1) + matcher.group(2) : null;
+    }
+
+    private Instant submitTime(Element row) {
+        Element time = row.selectFirst("span.format-time");
+        if (time == null) return null;
+        try {
+            return Instant.from(SUBMIT_TIME.parse(time.text()));
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.xjudge.service.scraping.session;
+
+import com.xjudge.entity.JudgeSession;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.repository.JudgeSessionRepo;
+import org.openqa.selenium.Cookie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the session cookies of every judge account, so the verdict of a run can be
+ * fetched with a plain HTTP request after its browser went back to the pool, and so new
+ * drivers or HTTP clients start from a logged in session instead of the login form.
+ * <p>
+ * Sessions are cached in memory and written through to the {@code judge_session} table,
+ * which is what survives a restart.
+ */
+@Component
+public class JudgeSessionStore {
+    private static final Logger logger = LoggerFactory.getLogger(JudgeSessionStore.class);
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final JudgeSessionRepo judgeSessionRepo;
+
+    @Autowired
+    public JudgeSessionStore(JudgeSessionRepo judgeSessionRepo) {
+        this.judgeSessionRepo = judgeSessionRepo;
+    }
+
+    public void save(OnlineJudgeType judge, String account, Map<String, String> cookies) {
+        if (cookies.isEmpty() || cookies.equals(sessions.get(key(judge, account)))) return;
+        sessions.put(key(judge, account), Map.copyOf(cookies));
+        try {
+            JudgeSession session = judgeSessionRepo.findByOjTypeAndAccount(judge, account)
+                    .orElseGet(() -> JudgeSession.builder().ojType(judge).account(account).build());
+            session.setCookies(new HashMap<>(cookies));
+            session.setUpdatedAt(Instant.now());
+            judgeSessionRepo.save(session);
+        } catch (Exception exception) {
+            logger.error("Fail to persist the session of {} on {} : {}", account, judge, exception.getMessage());
+        }
+    }
+
+    public void save(OnlineJudgeType judge, String account, Set<Cookie> cookies) {
+        Map<String, String> values = new HashMap<>();
+        for (Cookie cookie : cookies) {
+            values.put(cookie.getName(), cookie.getValue());
+        }
+        save(judge, account, values);
+    }
+
+    public void save(OnlineJudgeType judge, String account, CookieStore cookieStore) {
+        Map<String, String> values = new HashMap<>();
+        for (HttpCookie cookie : cookieStore.getCookies()) {
+            values.put(cookie.getName(), cookie.getValue());
+        }
+        save(judge, account, values);
+    }
+
+    /**
+     * Forgets a session the judge no longer accepts, so it isn't restored again after a restart.
+     */
+    public void invalidate(OnlineJudgeType judge, String account) {
+        sessions.remove(key(judge, account));
+        try {
+            judgeSessionRepo.findByOjTypeAndAccount(judge, account).ifPresent(judgeSessionRepo::delete);
+        } catch (Exception exception) {
+            logger.error("Fail to delete the session of {} on {} : {}", account, judge, exception.getMessage());
+        }
+    }
+
+    public Map<String, String> getCookies(OnlineJudgeType judge, String account) {
+        return sessions.computeIfAbsent(key(judge, account), key -> judgeSessionRepo.findByOjTypeAndAccount(judge, account)
+                .map(session -> toCookies(session.getCookies()))
+                .orElse(Map.of()));
+    }
+
+    /**
+     * Copies the stored cookies of the account into the cookie jar of an HTTP client.
+     */
+    public void restore(OnlineJudgeType judge, String account, CookieStore cookieStore, String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        getCookies(judge, account).forEach((name, value) -> {
+            HttpCookie cookie = new HttpCookie(name, value);
+            cookie.setPath("/");
+            cookie.setVersion(0);
+            cookieStore.add(uri, cookie);
+        });
+    }
+
+    private Map<String, String> toCookies(Map<String, Object> values) {
+        Map<String, String> cookies = new HashMap<>();
+        if (values != null) values.forEach((name, value) -> cookies.put(name, String.valueOf(value)));
+        return Map.copyOf(cookies);
+    }
+
+    private String key(OnlineJudgeType judge, String account) {
+        return judge + ":" + account;
+    }
+}
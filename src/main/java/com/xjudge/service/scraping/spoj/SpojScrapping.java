@@ -4,20 +4,16 @@ import com.xjudge.entity.Problem;
 import com.xjudge.entity.Property;
 import com.xjudge.entity.Section;
 import com.xjudge.entity.Value;
-import com.xjudge.exception.XJudgeException;
 import com.xjudge.model.enums.OnlineJudgeType;
-import com.xjudge.repository.PropertyRepository;
-import com.xjudge.repository.SectionRepository;
-import com.xjudge.repository.ValueRepository;
-import com.xjudge.service.scraping.codeforces.CodeforcesScrapping;
 import com.xjudge.service.scraping.strategy.ScrappingStrategy;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.http.ScraperHttpClient;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.data.util.Pair;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -29,10 +25,9 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class SpojScrapping implements ScrappingStrategy {
 
-    private final PropertyRepository propertyRepository;
-    private final SectionRepository sectionRepository;
-    private final ValueRepository valueRepository;
+    private final RemoteRateLimiter rateLimiter;
     private final SpojSplitting spojSplitting;
+    private final ScraperHttpClient httpClient;
 
     @Override
     public Problem scrap(String code) {
@@ -44,10 +39,11 @@ public class SpojScrapping implements ScrappingStrategy {
         System.out.println(targetProblem);
         Document problemDocument;
 
+        rateLimiter.acquire(OnlineJudgeType.spoj, RemoteRateLimiter.ANONYMOUS, RemoteOperation.SCRAPE);
         try {
-            problemDocument = Jsoup.connect(targetProblem).get();
+            problemDocument = httpClient.getDocument(targetProblem);
         } catch (IOException e) {
-            throw new XJudgeException("Problem not found", CodeforcesScrapping.class.getName(), HttpStatus.NOT_FOUND);
+            throw fetchFailure(e, SpojScrapping.class.getName());
         }
 
         List<Property> properties = new ArrayList<>(List.of());
@@ -59,7 +55,7 @@ public class SpojScrapping implements ScrappingStrategy {
             String title = td.getFirst().text();
             String content = td.get(1).text();
             if (title.contains("Resource")) contestName = content;
-            properties.add(propertyRepository.save(Property.builder().title(title).content(content).build()));
+            properties.add(Property.builder().title(title).content(content).build());
         }
 
         String title = problemDocument.select("#problem-name").text().split("-")[1];
@@ -76,12 +72,10 @@ public class SpojScrapping implements ScrappingStrategy {
             if (sectionTitle.contains("Example")) {
                 sectionContent = generateSampleTable(section.getSecond());
             }
-            Value value = valueRepository.save(Value.builder().format("HTML").content(sectionContent).build());
+            Value value = Value.builder().format("HTML").content(sectionContent).build();
             problemSections.add(Section.builder().title(sectionTitle).value(value).build());
         }
 
-        sectionRepository.saveAll(problemSections);
-
         return Problem.builder()
                 .code(problemId)
                 .onlineJudge(OnlineJudgeType.spoj)
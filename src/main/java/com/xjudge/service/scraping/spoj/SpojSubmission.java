@@ -1,14 +1,161 @@
 package com.xjudge.service.scraping.spoj;
 
+import com.xjudge.config.judge.JudgeProperties;
 import com.xjudge.entity.Submission;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
 import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
 import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.util.accountpool.AccountLease;
+import com.xjudge.util.accountpool.SpojAccountPool;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Submits to SPOJ with plain HTTP requests, SPOJ has no browser based engine. Every account keeps its own
+ * Jsoup session holding the SPOJ login cookies and the run id is read from the page the submit form answers with.
+ */
 @Service
 public class SpojSubmission implements SubmissionStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(SpojSubmission.class);
+    private static final String BASE_URL = "https://www.spoj.com";
+    private static final String LOGIN_URL = "https://www.spoj.com/login/";
+    private static final String SUBMIT_URL = "https://www.spoj.com/submit/complete/";
+    private static final String LOGIN_COOKIE = "autologin_hash";
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0";
+    private static final int TIMEOUT_MS = 15_000;
+    private final Map<String, Connection> sessions = new ConcurrentHashMap<>();
+    private final SpojAccountPool accountPool;
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final AccountRouter router;
+
+    @Autowired
+    public SpojSubmission(SpojAccountPool accountPool,
+                          JudgeSessionStore sessionStore,
+                          RemoteRateLimiter rateLimiter,
+                          AccountRouter router) {
+        this.accountPool = accountPool;
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.router = router;
+    }
+
     @Override
     public Submission submit(SubmissionInfoModel data) {
-        return null;
+        Instant submitTime = Instant.now();
+        RouteRequest route = RouteRequest.of(data);
+        try (AccountLease lease = accountPool.acquire(route)) {
+            Connection session = sessions.computeIfAbsent(lease.getUsername(), this::newSession);
+            verifyLogin(session, lease.getAccount());
+            rateLimiter.acquire(OnlineJudgeType.spoj, lease.getUsername(), RemoteOperation.SUBMIT);
+            String remoteId = submitSolution(session, data);
+            router.onSubmitted(OnlineJudgeType.spoj, lease.getUsername(), route);
+            logger.info("Remote Id : {}", remoteId);
+            sessionStore.save(OnlineJudgeType.spoj, lease.getUsername(), session.cookieStore());
+            return setSubmissionData(remoteId, lease.getUsername(), data, submitTime);
+        } catch (Exception exception) {
+            logger.error(exception.getMessage());
+            if (exception instanceof XJudgeException rejected
+                    && (isRejectedLocally(rejected) || isRejectedByJudge(rejected))) throw rejected;
+            return Submission.builder()
+                    .remoteRunId("0")
+                    .ojType(data.ojType())
+                    .solution(data.solutionCode())
+                    .language(data.compiler().getName())
+                    .submitTime(submitTime)
+                    .memoryUsage("0 KB")
+                    .timeUsage("0 ms")
+                    .verdict("Waiting Judge")
+                    .verdictCode(Verdict.IN_QUEUE)
+                    .timeMs(0)
+                    .memoryKb(0)
+                    .submissionStatus("unsubmitted")
+                    .isOpen(data.isOpen() == null || data.isOpen())
+                    .compiler(data.compiler())
+                    .build();
+        }
+    }
+
+    private void verifyLogin(Connection session, JudgeProperties.Account account) throws IOException {
+        if (isLogin(session)) return;
+        rateLimiter.acquire(OnlineJudgeType.spoj, account.getUsername(), RemoteOperation.LOGIN);
+        session.newRequest()
+                .url(LOGIN_URL)
+                .data("next_raw", "/")
+                .data("autologin", "1")
+                .data("login_user", account.getUsername())
+                .data("password", account.getPassword())
+                .post();
+        if (!isLogin(session)) {
+            throw new XJudgeException("FAIL TO LOGIN", SpojSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private String submitSolution(Connection session, SubmissionInfoModel data) throws IOException {
+        Document response = session.newRequest()
+                .url(SUBMIT_URL)
+                .data("problemcode", data.code())
+                .data("lang", data.compiler().getIdValue())
+                .data("file", data.solutionCode())
+                .data("submit", "Submit!")
+                .post();
+        Element remoteId = response.selectFirst("input[name=newSubmissionId]");
+        if (remoteId != null) return remoteId.val();
+        if (response.selectFirst("input[name=login_user]") != null) {
+            // the stored session expired on SPOJ's side, the next attempt logs in again
+            session.cookieStore().removeAll();
+            throw new XJudgeException("SPOJ session expired", SpojSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        throw new XJudgeException("FAIL_TO_SUBMIT", SpojSubmission.class.getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private Connection newSession(String account) {
+        Connection session = Jsoup.newSession().userAgent(USER_AGENT).timeout(TIMEOUT_MS);
+        sessionStore.restore(OnlineJudgeType.spoj, account, session.cookieStore(), BASE_URL);
+        return session;
+    }
+
+    private boolean isLogin(Connection session) {
+        return session.cookieStore().getCookies().stream()
+                .anyMatch(cookie -> cookie.getName().equals(LOGIN_COOKIE) && !cookie.hasExpired());
+    }
+
+    private Submission setSubmissionData(String remoteId, String account, SubmissionInfoModel data, Instant submitTime) {
+        return Submission.builder()
+                .remoteRunId(remoteId)
+                .remoteAccount(account)
+                .ojType(data.ojType())
+                .solution(data.solutionCode())
+                .language(data.compiler().getName())
+                .submitTime(submitTime)
+                .memoryUsage("0 KB")
+                .timeUsage("0 ms")
+                .verdict("waiting..")
+                .verdictCode(Verdict.IN_QUEUE)
+                .timeMs(0)
+                .memoryKb(0)
+                .submissionStatus("judging")
+                .isOpen(data.isOpen() == null || data.isOpen())
+                .compiler(data.compiler())
+                .build();
     }
 }
@@ -0,0 +1,85 @@
+package com.xjudge.service.scraping.spoj;
+
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import com.xjudge.util.UsageParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SpojVerdict implements VerdictStrategy {
+    private static final String STATUS_URL = "https://www.spoj.com/status/%s/";
+    // status pages show the server time of SPOJ
+    private static final DateTimeFormatter SUBMIT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.of("Europe/Warsaw"));
+
+    @Override
+    public Map<String, SubmissionScrapedData> fetchVerdicts(List<PendingSubmission> submissions, Map<String, String> cookies) {
+        // every run of the batch belongs to the same account, its status page lists the latest runs
+        String account = submissions.getFirst().remoteAccount();
+        Document statusDocument;
+        try {
+            statusDocument = Jsoup.connect(String.format(STATUS_URL, account)).cookies(cookies).get();
+        } catch (IOException e) {
+            throw new XJudgeException("Fail to fetch the status page", SpojVerdict.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Map<String, SubmissionScrapedData> verdicts = new HashMap<>();
+        for (Element result : statusDocument.select("td[id^=statusres_]")) {
+            String remoteId = result.id().substring("statusres_".length());
+            Element strong = result.selectFirst("strong");
+            String verdict = strong != null ? strong.text() : result.ownText();
+            String time = cellText(statusDocument, "statustime_" + remoteId);
+            String memory = cellText(statusDocument, "statusmem_" + remoteId);
+            verdicts.put(remoteId, SubmissionScrapedData.builder()
+                    .remoteId(remoteId)
+                    .time(time)
+                    .memory(memory)
+                    .verdict(verdict)
+                    .verdictCode(Verdict.parse(verdict))
+                    .testNumber(Verdict.parseTestNumber(verdict))
+                    .timeMs(UsageParser.parseTimeMs(time))
+                    .memoryKb(UsageParser.parseMemoryKb(memory))
+                    .problemCode(problemCode(result.parent()))
+                    .submitTime(submitTime(result.parent()))
+                    .build());
+        }
+        return verdicts;
+    }
+
+    private String problemCode(Element row) {
+        Element link = row == null ? null : row.selectFirst("td.sproblem a[href]");
+        if (link == null) return null;
+        String[] path = link.attr("href").split("/");
+        return path.length == 0 ? null : path[path.length - 1];
+    }
+
+    private Instant submitTime(Element row) {
+        Element time = row == null ? null : row.selectFirst("td.status_sm span");
+        if (time == null) return null;
+        try {
+            return Instant.from(SUBMIT_TIME.parse(time.text()));
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    private String cellText(Document document, String id) {
+        Element cell = document.getElementById(id);
+        return cell == null ? "" : cell.text();
+    }
+}
@@ -4,4 +4,6 @@ import org.openqa.selenium.WebDriver;
 
 public interface LoginService {
     void verifyLogin(WebDriver driver , String username ,  String password);
+
+    boolean isLogin(WebDriver driver);
 }
\ No newline at end of file
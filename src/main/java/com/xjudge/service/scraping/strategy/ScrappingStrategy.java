@@ -1,7 +1,34 @@
 package com.xjudge.service.scraping.strategy;
 
 import com.xjudge.entity.Problem;
+import com.xjudge.exception.XJudgeException;
+import org.jsoup.HttpStatusException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.List;
 
 public interface ScrappingStrategy {
+    /**
+     * Fetches and parses a problem without touching the database.
+     * @return the problem with its sections and properties, none of them saved yet
+     */
     Problem scrap(String code);
+
+    /**
+     * @return the codes of the problems of a contest on the judge, in the order the judge lists them
+     */
+    default List<String> listContestProblems(String contestId) {
+        throw new XJudgeException("Importing a whole contest isn't supported for this online judge", ScrappingStrategy.class.getName(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * A missing problem is the caller's mistake, any other fetch failure means the judge is unreachable.
+     */
+    default XJudgeException fetchFailure(IOException exception, String origin) {
+        if (exception instanceof HttpStatusException status && status.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+            return new XJudgeException("Problem not found", origin, HttpStatus.NOT_FOUND);
+        }
+        return new XJudgeException("Online judge is unreachable", origin, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -1,8 +1,27 @@
 package com.xjudge.service.scraping.strategy;
 
 import com.xjudge.entity.Submission;
+import com.xjudge.exception.XJudgeException;
 import com.xjudge.model.submission.SubmissionInfoModel;
+import org.springframework.http.HttpStatus;
 
 public interface SubmissionStrategy {
     Submission submit(SubmissionInfoModel data);
+
+    /**
+     * Our own account pools and rate limits reject with 503 and 429 before the judge is reached,
+     * those rejections are thrown instead of being reported as an unsubmitted run.
+     */
+    default boolean isRejectedLocally(XJudgeException exception) {
+        return exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                || exception.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * The judge answered and refused the submission for a reason of its own, such as an unsupported language
+     * or the same source sent twice. Those are thrown with 400 and don't count against the health of the judge.
+     */
+    default boolean isRejectedByJudge(XJudgeException exception) {
+        return exception.getStatusCode() == HttpStatus.BAD_REQUEST;
+    }
 }
@@ -0,0 +1,16 @@
+package com.xjudge.service.scraping.strategy;
+
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+
+import java.util.List;
+import java.util.Map;
+
+public interface VerdictStrategy {
+    /**
+     * Resolves the verdicts of the pending runs of a single account with as few status page fetches as possible.
+     * @return the scraped data keyed by remote run id with its {@link com.xjudge.model.enums.Verdict} parsed,
+     * runs not found on the fetched pages, or on pages that failed to load while others loaded, are left out
+     */
+    Map<String, SubmissionScrapedData> fetchVerdicts(List<PendingSubmission> submissions, Map<String, String> cookies);
+}
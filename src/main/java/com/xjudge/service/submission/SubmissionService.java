@@ -16,6 +16,8 @@ import java.util.List;
 public interface SubmissionService {
     SubmissionModel getSubmissionById(Long submissionId , Authentication authentication);
 
+    Submission getSubmission(Long submissionId);
+
     Page<SubmissionPageModel> getAllSubmissions(Pageable pageable);
 
     Submission save(Submission submission);
@@ -34,5 +36,9 @@ public interface SubmissionService {
 
     List<Submission> findByUserAndProblem(User user, Problem problem);
 
+    boolean hasAcceptedSubmission(User user, Problem problem, Long excludedSubmissionId);
+
+    boolean hasAcceptedContestSubmission(Long contestId, Long userId, String problemCode, Long excludedSubmissionId);
+
     List<Submission> getSubmissionByStatus(String status);
 }
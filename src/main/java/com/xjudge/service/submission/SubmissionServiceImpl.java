@@ -1,6 +1,5 @@
 package com.xjudge.service.submission;
 
-import com.xjudge.entity.Compiler;
 import com.xjudge.entity.Problem;
 import com.xjudge.entity.Submission;
 import com.xjudge.entity.User;
@@ -8,14 +7,15 @@ import com.xjudge.exception.XJudgeException;
 import com.xjudge.mapper.SubmissionMapper;
 import com.xjudge.model.contest.ContestStatusPageModel;
 import com.xjudge.model.enums.OnlineJudgeType;
-import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.submission.SubmissionEstimate;
 import com.xjudge.model.submission.SubmissionModel;
 import com.xjudge.model.submission.SubmissionPageModel;
 import com.xjudge.repository.ContestRepo;
 import com.xjudge.repository.SubmissionRepo;
 import com.xjudge.service.contest.contestproblem.ContestProblemService;
 import com.xjudge.service.problem.ProblemService;
-import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.service.submission.worker.SubmissionEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -27,7 +27,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class SubmissionServiceImpl implements SubmissionService {
@@ -35,28 +34,31 @@ public class SubmissionServiceImpl implements SubmissionService {
     private final SubmissionRepo submissionRepo;
     private final SubmissionMapper submissionMapper;
     private final ContestProblemService contestProblemService;
-    private final Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies;
+    private final SubmissionEstimator submissionEstimator;
 
 
     @Autowired
-    public SubmissionServiceImpl(SubmissionRepo submissionRepo, SubmissionMapper submissionMapper, ContestProblemService contestProblemService, Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies, ContestRepo contestRepo) {
+    public SubmissionServiceImpl(SubmissionRepo submissionRepo, SubmissionMapper submissionMapper, ContestProblemService contestProblemService, ContestRepo contestRepo,
+                                 SubmissionEstimator submissionEstimator) {
         this.submissionRepo = submissionRepo;
         this.submissionMapper = submissionMapper;
         this.contestProblemService = contestProblemService;
-        this.submissionStrategies = submissionStrategies;
+        this.submissionEstimator = submissionEstimator;
     }
 
     @Override
     public SubmissionModel getSubmissionById(Long submissionId , Authentication authentication) {
         Submission submission = submissionRepo.findById(submissionId).orElseThrow(() -> new XJudgeException("Submission not found." , SubmissionServiceImpl.class.getName() , HttpStatus.NOT_FOUND));
-        if(submission.getSubmissionStatus().equalsIgnoreCase("submitted")) {
-          return determineSubmissionModel(submission , authentication);
-        }
-        SubmissionInfoModel submissionInfoModel = getSubmissionInfo(submission);
-        SubmissionStrategy strategy = submissionStrategies.get(submissionInfoModel.ojType());
-        Submission updatedSubmission = strategy.submit(submissionInfoModel);
-        updateSubmissionStatus(submission, updatedSubmission);
-        return determineSubmissionModel(submissionRepo.save(submission) , authentication);
+        SubmissionModel model = determineSubmissionModel(submission , authentication);
+        SubmissionEstimate estimate = submissionEstimator.estimate(submission);
+        model.setQueuePosition(estimate.queuePosition());
+        model.setEstimatedCompletionTime(estimate.estimatedCompletionTime());
+        return model;
+    }
+
+    @Override
+    public Submission getSubmission(Long submissionId) {
+        return submissionRepo.findById(submissionId).orElseThrow(() -> new XJudgeException("Submission not found." , SubmissionServiceImpl.class.getName() , HttpStatus.NOT_FOUND));
     }
 
     @Override
@@ -110,12 +112,15 @@ public class SubmissionServiceImpl implements SubmissionService {
     @Override
     public Page<ContestStatusPageModel> filterSubmissionsInContest(Long contestId, String userHandle , String problemCode,String result ,String language, Pageable pageable) {
         Page<Submission> submissions = submissionRepo.filterContestSubmissions(contestId , userHandle, problemCode, result ,language, pageable);
-        return submissions.map(submission ->
-                submissionMapper
-                        .toContestStatusPageModel(
-                               submission , getProblemIndex(submission.getContest().getId() , submission.getProblem().getId())
-                               )
-        );
+        return submissions.map(submission -> {
+            ContestStatusPageModel model = submissionMapper.toContestStatusPageModel(
+                    submission , getProblemIndex(submission.getContest().getId() , submission.getProblem().getId())
+            );
+            SubmissionEstimate estimate = submissionEstimator.estimate(submission);
+            model.setQueuePosition(estimate.queuePosition());
+            model.setEstimatedCompletionTime(estimate.estimatedCompletionTime());
+            return model;
+        });
     }
 
     @Override
@@ -123,6 +128,16 @@ public class SubmissionServiceImpl implements SubmissionService {
         return submissionRepo.findByUserAndProblem(user, problem);
     }
 
+    @Override
+    public boolean hasAcceptedSubmission(User user, Problem problem, Long excludedSubmissionId) {
+        return submissionRepo.existsByUserAndProblemAndVerdictCodeAndIdNot(user, problem, Verdict.ACCEPTED, excludedSubmissionId);
+    }
+
+    @Override
+    public boolean hasAcceptedContestSubmission(Long contestId, Long userId, String problemCode, Long excludedSubmissionId) {
+        return submissionRepo.existsByContestIdAndUserIdAndProblemCodeAndVerdictCodeAndIdNot(contestId, userId, problemCode, Verdict.ACCEPTED, excludedSubmissionId);
+    }
+
     @Override
     public List<Submission> getSubmissionByStatus(String status) {
         return submissionRepo.findSubmissionsBySubmissionStatus(status);
@@ -139,25 +154,6 @@ public class SubmissionServiceImpl implements SubmissionService {
                 .equals(loginUserHandle);
     }
 
-    private void updateSubmissionStatus(Submission storedSubmission , Submission updatedSubmission){
-        storedSubmission.setSubmissionStatus(updatedSubmission.getSubmissionStatus());
-        storedSubmission.setMemoryUsage(updatedSubmission.getMemoryUsage());
-        storedSubmission.setVerdict(updatedSubmission.getVerdict());
-        storedSubmission.setTimeUsage(updatedSubmission.getTimeUsage());
-        storedSubmission.setRemoteRunId(updatedSubmission.getRemoteRunId());
-    }
-
-    private SubmissionInfoModel getSubmissionInfo(Submission submission){
-        Problem problem = submission.getProblem();
-        return SubmissionInfoModel.builder()
-                .code(problem.getCode())
-                .ojType(problem.getOnlineJudge())
-                .solutionCode(submission.getSolution())
-                .isOpen(submission.getIsOpen())
-                .compiler(submission.getCompiler())
-                .build();
-    }
-
     private SubmissionModel determineSubmissionModel(Submission submission , Authentication authentication){
         if ((authentication != null && isUserSubmission(submission.getUser(), authentication.getName()))
                 || submission.getIsOpen())
@@ -0,0 +1,7 @@
+package com.xjudge.service.submission.event;
+
+/**
+ * Published once a submission got its final verdict from the online judge.
+ */
+public record SubmissionJudgedEvent(Long submissionId) {
+}
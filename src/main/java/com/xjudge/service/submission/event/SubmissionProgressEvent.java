@@ -0,0 +1,30 @@
+package com.xjudge.service.submission.event;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.model.enums.Verdict;
+
+/**
+ * Published on every state change of a submission (queued, sent, running on a test, final verdict).
+ * It only carries the public state of the run, never the solution.
+ */
+public record SubmissionProgressEvent(Long submissionId, Long contestId, String status,
+                                      String verdict, Verdict verdictCode, Integer testNumber,
+                                      String timeUsage, String memoryUsage) {
+
+    public static SubmissionProgressEvent of(Submission submission) {
+        return new SubmissionProgressEvent(
+                submission.getId(),
+                submission.getContest() == null ? null : submission.getContest().getId(),
+                submission.getSubmissionStatus(),
+                submission.getVerdict(),
+                submission.getVerdictCode(),
+                submission.getTestNumber(),
+                submission.getTimeUsage(),
+                submission.getMemoryUsage()
+        );
+    }
+
+    public boolean isFinal() {
+        return "submitted".equals(status) || "failed".equals(status);
+    }
+}
@@ -0,0 +1,9 @@
+package com.xjudge.service.submission.event;
+
+import com.xjudge.util.submissionqueue.QueuedSubmission;
+
+/**
+ * Published once a new submission row is stored and waiting to be sent to its online judge.
+ */
+public record SubmissionQueuedEvent(QueuedSubmission submission) {
+}
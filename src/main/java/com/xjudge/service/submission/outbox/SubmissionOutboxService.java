@@ -0,0 +1,69 @@
+package com.xjudge.service.submission.outbox;
+
+import com.xjudge.entity.SubmissionOutbox;
+import com.xjudge.model.enums.OutboxState;
+import com.xjudge.repository.SubmissionOutboxRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Moves the outbox item of a submission along with the submission itself. Every method joins the
+ * caller's transaction, so the item and the submission row are always committed together.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SubmissionOutboxService {
+    private final SubmissionOutboxRepo outboxRepo;
+
+    public void pendingSubmit(Long submissionId) {
+        SubmissionOutbox item = find(submissionId);
+        item.setState(OutboxState.PENDING_SUBMIT);
+        item.setRemoteRunId(null);
+        item.setRemoteAccount(null);
+        save(item);
+    }
+
+    /**
+     * Marks the submission as being posted to its judge, so a crash before the run id is read back leaves it
+     * to be reconciled with the status pages instead of being sent twice.
+     */
+    public void sending(Long submissionId) {
+        SubmissionOutbox item = find(submissionId);
+        item.setState(OutboxState.SENDING);
+        item.setRemoteRunId(null);
+        item.setRemoteAccount(null);
+        save(item);
+    }
+
+    public void awaitingVerdict(Long submissionId, String remoteRunId, String remoteAccount) {
+        SubmissionOutbox item = find(submissionId);
+        item.setState(OutboxState.AWAITING_VERDICT);
+        item.setRemoteRunId(remoteRunId);
+        item.setRemoteAccount(remoteAccount);
+        save(item);
+    }
+
+    public void done(Long submissionId) {
+        SubmissionOutbox item = find(submissionId);
+        item.setState(OutboxState.DONE);
+        save(item);
+    }
+
+    private SubmissionOutbox find(Long submissionId) {
+        return outboxRepo.findBySubmissionId(submissionId)
+                .orElseGet(() -> SubmissionOutbox.builder()
+                        .submissionId(submissionId)
+                        .createdAt(Instant.now())
+                        .build());
+    }
+
+    private void save(SubmissionOutbox item) {
+        item.setUpdatedAt(Instant.now());
+        outboxRepo.save(item);
+    }
+}
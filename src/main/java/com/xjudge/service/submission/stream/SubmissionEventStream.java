@@ -0,0 +1,200 @@
+package com.xjudge.service.submission.stream;
+
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes {@link SubmissionProgressEvent}s to the clients listening on a submission or on a whole contest
+ * over server-sent events, so they don't have to poll the submission endpoints for a verdict.
+ * Every client has its own queue drained on a virtual thread, so its events keep their order and a slow
+ * client only holds up itself, never the publisher or the other clients.
+ */
+@Component
+public class SubmissionEventStream {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionEventStream.class);
+    private static final String PROGRESS_EVENT = "progress";
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Subscriber>> submissionListeners = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> contestListeners = new ConcurrentHashMap<>();
+    private final SubmissionRepo submissionRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration timeout;
+
+    @Autowired
+    public SubmissionEventStream(SubmissionRepo submissionRepo,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${submission-stream.timeout:30m}") Duration timeout) {
+        this.submissionRepo = submissionRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.timeout = timeout;
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        dispatcher.shutdown();
+        submissionListeners.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        contestListeners.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Streams the state changes of one submission, starting with its current state,
+     * and completes once the submission got its final verdict.
+     */
+    public SseEmitter subscribeSubmission(Long submissionId) {
+        // registered before the snapshot is read, so an event published in between is queued behind it, not lost
+        Subscriber subscriber = register(submissionListeners, submissionId, false);
+        SubmissionProgressEvent current;
+        try {
+            current = transactionTemplate.execute(status -> submissionRepo.findById(submissionId)
+                    .map(SubmissionProgressEvent::of)
+                    .orElseThrow(() -> new XJudgeException("Submission not found.", SubmissionEventStream.class.getName(), HttpStatus.NOT_FOUND)));
+        } catch (RuntimeException exception) {
+            remove(submissionListeners, submissionId, subscriber);
+            throw exception;
+        }
+        subscriber.start(() -> {
+            send(submissionListeners, submissionId, subscriber, current);
+            if (current != null && current.isFinal()) subscriber.emitter.complete();
+        });
+        return subscriber.emitter;
+    }
+
+    /**
+     * Streams the state changes of every submission made in a contest.
+     */
+    public SseEmitter subscribeContest(Long contestId) {
+        return register(contestListeners, contestId, true).emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgress(SubmissionProgressEvent event) {
+        Set<Subscriber> subscribers = submissionListeners.get(event.submissionId());
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.enqueue(() -> {
+                send(submissionListeners, event.submissionId(), subscriber, event);
+                if (event.isFinal()) subscriber.emitter.complete();
+            }));
+        }
+        if (event.contestId() != null) {
+            contestListeners.getOrDefault(event.contestId(), Set.of()).forEach(subscriber ->
+                    subscriber.enqueue(() -> send(contestListeners, event.contestId(), subscriber, event)));
+        }
+    }
+
+    // keeps idle connections open through proxies and drops the clients that went away
+    @Scheduled(fixedDelayString = "${submission-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        submissionListeners.forEach((id, subscribers) -> subscribers.forEach(subscriber ->
+                subscriber.enqueue(() -> ping(submissionListeners, id, subscriber))));
+        contestListeners.forEach((id, subscribers) -> subscribers.forEach(subscriber ->
+                subscriber.enqueue(() -> ping(contestListeners, id, subscriber))));
+    }
+
+    private Subscriber register(Map<Long, Set<Subscriber>> listeners, Long key, boolean started) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), started);
+        listeners.computeIfAbsent(key, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.emitter.onCompletion(() -> remove(listeners, key, subscriber));
+        subscriber.emitter.onTimeout(() -> remove(listeners, key, subscriber));
+        subscriber.emitter.onError(error -> remove(listeners, key, subscriber));
+        return subscriber;
+    }
+
+    private void send(Map<Long, Set<Subscriber>> listeners, Long key, Subscriber subscriber, SubmissionProgressEvent event) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(PROGRESS_EVENT).id(String.valueOf(event.submissionId())).data(event));
+        } catch (IOException | IllegalStateException exception) {
+            logger.debug("Dropping a submission listener : {}", exception.getMessage());
+            remove(listeners, key, subscriber);
+        }
+    }
+
+    private void ping(Map<Long, Set<Subscriber>> listeners, Long key, Subscriber subscriber) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment("ping"));
+        } catch (IOException | IllegalStateException exception) {
+            remove(listeners, key, subscriber);
+        }
+    }
+
+    private void remove(Map<Long, Set<Subscriber>> listeners, Long key, Subscriber subscriber) {
+        listeners.computeIfPresent(key, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * One client and the writes waiting for it, run one at a time in the order they were queued.
+     * Nothing is written before the subscriber is started, so a snapshot can go out first.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private boolean started;
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter, boolean started) {
+            this.emitter = emitter;
+            this.started = started;
+        }
+
+        void start(Runnable first) {
+            synchronized (this) {
+                pending.addFirst(first);
+                started = true;
+                if (draining) return;
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        void enqueue(Runnable write) {
+            synchronized (this) {
+                pending.addLast(write);
+                if (!started || draining) return;
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable write;
+                synchronized (this) {
+                    write = pending.pollFirst();
+                    if (write == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    write.run();
+                } catch (RuntimeException exception) {
+                    logger.debug("Fail to write to a submission listener : {}", exception.getMessage());
+                }
+            }
+        }
+    }
+}
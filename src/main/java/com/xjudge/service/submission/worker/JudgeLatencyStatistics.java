@@ -0,0 +1,104 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.submission.JudgeTiming;
+import com.xjudge.repository.SubmissionRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps rolling statistics of how long every judge takes to accept a submission (send time) and from submit
+ * to final verdict: an exponentially weighted moving average, and percentiles over the last {@value #WINDOW} samples.
+ * The verdict latency of every judge is seeded at startup from its latest judged submissions.
+ */
+@Component
+public class JudgeLatencyStatistics {
+    private static final double ALPHA = 0.2;
+    private static final int WINDOW = 200;
+    private static final Duration DEFAULT_LATENCY = Duration.ofSeconds(5);
+    private final Map<OnlineJudgeType, Series> verdictLatency = new ConcurrentHashMap<>();
+    private final Map<OnlineJudgeType, Series> sendTime = new ConcurrentHashMap<>();
+    private final SubmissionRepo submissionRepo;
+
+    @Autowired
+    public JudgeLatencyStatistics(SubmissionRepo submissionRepo) {
+        this.submissionRepo = submissionRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromHistory() {
+        for (OnlineJudgeType judge : OnlineJudgeType.values()) {
+            List<JudgeTiming> timings = submissionRepo.findRecentJudgeTimings(judge, PageRequest.of(0, WINDOW));
+            // oldest first, so the moving average ends on the latest runs
+            for (int i = timings.size() - 1; i >= 0; i--) {
+                Duration latency = Duration.between(timings.get(i).submitTime(), timings.get(i).judgedAt());
+                if (!latency.isNegative()) record(judge, latency);
+            }
+        }
+    }
+
+    public void record(OnlineJudgeType judge, Duration latency) {
+        verdictLatency.computeIfAbsent(judge, key -> new Series()).add(latency.toMillis());
+    }
+
+    public void recordSendTime(OnlineJudgeType judge, Duration duration) {
+        sendTime.computeIfAbsent(judge, key -> new Series()).add(duration.toMillis());
+    }
+
+    public Duration getExpectedLatency(OnlineJudgeType judge) {
+        return average(verdictLatency, judge);
+    }
+
+    public Duration getExpectedSendTime(OnlineJudgeType judge) {
+        return average(sendTime, judge);
+    }
+
+    /**
+     * @return the submit to verdict time that {@code percentile} percent of the recent runs stayed under,
+     * or null before the judge returned any verdict
+     */
+    public Duration getLatencyPercentile(OnlineJudgeType judge, int percentile) {
+        Series series = verdictLatency.get(judge);
+        return series == null ? null : series.percentile(percentile);
+    }
+
+    private Duration average(Map<OnlineJudgeType, Series> statistics, OnlineJudgeType judge) {
+        Series series = statistics.get(judge);
+        return series == null ? DEFAULT_LATENCY : series.average();
+    }
+
+    private static class Series {
+        private final long[] samples = new long[WINDOW];
+        private int count;
+        private int next;
+        private double averageMillis;
+
+        synchronized void add(long millis) {
+            averageMillis = count == 0 ? millis : averageMillis + ALPHA * (millis - averageMillis);
+            samples[next] = millis;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+        }
+
+        synchronized Duration average() {
+            return Duration.ofMillis(Math.round(averageMillis));
+        }
+
+        synchronized Duration percentile(int percentile) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            // nearest rank
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return Duration.ofMillis(sorted[Math.max(rank, 1) - 1]);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import com.xjudge.util.submissionqueue.QueuedSubmission;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sends {@code unsubmitted} submissions again once their retry time has come. Due submissions are
+ * claimed in batches by moving them back to {@code in queue} before they're handed to the
+ * {@link SubmissionWorker}, so a submission is never sent twice by overlapping retries.
+ */
+@Component
+public class ResubmissionWorker {
+    private final SubmissionRepo submissionRepo;
+    private final SubmissionWorker submissionWorker;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    @Autowired
+    public ResubmissionWorker(SubmissionRepo submissionRepo,
+                              SubmissionWorker submissionWorker,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${resubmission.batch-size:20}") int batchSize) {
+        this.submissionRepo = submissionRepo;
+        this.submissionWorker = submissionWorker;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${resubmission.interval-ms:15000}")
+    public void resubmitFailedSubmissions() {
+        List<QueuedSubmission> claimed = transactionTemplate.execute(status -> {
+            List<Submission> due = submissionRepo.findDueResubmissions(Instant.now(), PageRequest.of(0, batchSize));
+            for (Submission submission : due) {
+                submission.setSubmissionStatus("in queue");
+                submission.setVerdict("In queue");
+                submission.setVerdictCode(Verdict.IN_QUEUE);
+                eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            }
+            return due.stream().map(QueuedSubmission::of).toList();
+        });
+        if (claimed != null) claimed.forEach(submissionWorker::enqueue);
+    }
+}
@@ -0,0 +1,207 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.entity.SubmissionOutbox;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.OutboxState;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.repository.SubmissionOutboxRepo;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import com.xjudge.service.submission.outbox.SubmissionOutboxService;
+import com.xjudge.util.accountpool.AccountPool;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.submissionqueue.QueuedSubmission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Settles the submissions a previous run of the application stopped in the middle of sending
+ * ({@link OutboxState#SENDING}). Such a run may already be on the judge without us knowing its id, so it is
+ * never simply sent again: the status pages of the judge accounts are searched for a run of the same problem
+ * submitted within {@code submission-outbox.reconcile-window} of the moment the send started.
+ * <ul>
+ *     <li>a matching run is attached to the submission, which goes back to {@code judging};</li>
+ *     <li>the submission is queued again only when every account's page reaches back before the send
+ *     without a matching run, that is when it provably never reached the judge;</li>
+ *     <li>anything still undecided after {@code submission-outbox.reconcile-timeout} fails rather than risking
+ *     a duplicate run.</li>
+ * </ul>
+ */
+@Component
+public class SendingReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(SendingReconciler.class);
+    // Codeforces only shows submit times to the minute
+    private static final Duration CLOCK_TOLERANCE = Duration.ofMinutes(1);
+    private final Instant startedAt = Instant.now();
+    private final SubmissionOutboxRepo outboxRepo;
+    private final SubmissionRepo submissionRepo;
+    private final SubmissionOutboxService outboxService;
+    private final SubmissionWorker submissionWorker;
+    private final Map<OnlineJudgeType, VerdictStrategy> verdictStrategies;
+    private final Map<OnlineJudgeType, AccountPool> accountPools = new EnumMap<>(OnlineJudgeType.class);
+    private final JudgeSessionStore sessionStore;
+    private final RemoteRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration window;
+    private final Duration timeout;
+
+    @Autowired
+    public SendingReconciler(SubmissionOutboxRepo outboxRepo,
+                             SubmissionRepo submissionRepo,
+                             SubmissionOutboxService outboxService,
+                             SubmissionWorker submissionWorker,
+                             Map<OnlineJudgeType, VerdictStrategy> verdictStrategies,
+                             List<AccountPool> accountPools,
+                             JudgeSessionStore sessionStore,
+                             RemoteRateLimiter rateLimiter,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${submission-outbox.reconcile-window:5m}") Duration window,
+                             @Value("${submission-outbox.reconcile-timeout:1h}") Duration timeout) {
+        this.outboxRepo = outboxRepo;
+        this.submissionRepo = submissionRepo;
+        this.outboxService = outboxService;
+        this.submissionWorker = submissionWorker;
+        this.verdictStrategies = verdictStrategies;
+        accountPools.forEach(pool -> this.accountPools.put(pool.getJudge(), pool));
+        this.sessionStore = sessionStore;
+        this.rateLimiter = rateLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.window = window;
+        this.timeout = timeout;
+    }
+
+    @Scheduled(fixedDelayString = "${submission-outbox.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        // items this run is sending right now are left alone, only those written before it started are orphans
+        List<Sending> orphans = transactionTemplate.execute(status ->
+                outboxRepo.findByStateAndUpdatedAtBefore(OutboxState.SENDING, startedAt).stream()
+                        .map(this::toSending)
+                        .filter(Objects::nonNull)
+                        .sorted(Comparator.comparing(Sending::sentAt))
+                        .toList());
+        if (orphans == null || orphans.isEmpty()) return;
+
+        Map<String, List<SubmissionScrapedData>> pages = new HashMap<>();
+        Set<String> claimedRuns = new HashSet<>();
+        Map<Long, SubmissionScrapedData> found = new HashMap<>();
+        Map<Long, String> foundAccounts = new HashMap<>();
+        List<Long> neverSent = new ArrayList<>();
+        List<Long> givenUp = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Sending orphan : orphans) {
+            Decision decision = decide(orphan, pages, claimedRuns);
+            if (decision.run() != null) {
+                claimedRuns.add(orphan.judge() + ":" + decision.run().getRemoteId());
+                found.put(orphan.id(), decision.run());
+                foundAccounts.put(orphan.id(), decision.account());
+            } else if (decision.neverSent()) {
+                neverSent.add(orphan.id());
+            } else if (orphan.sentAt().plus(timeout).isBefore(now)) {
+                givenUp.add(orphan.id());
+            }
+        }
+
+        List<QueuedSubmission> requeued = transactionTemplate.execute(status -> {
+            List<QueuedSubmission> queued = new ArrayList<>();
+            for (Submission submission : submissionRepo.findAllById(found.keySet())) {
+                SubmissionScrapedData run = found.get(submission.getId());
+                submission.setRemoteRunId(run.getRemoteId());
+                submission.setRemoteAccount(foundAccounts.get(submission.getId()));
+                submission.setSubmissionStatus("judging");
+                outboxService.awaitingVerdict(submission.getId(), run.getRemoteId(), submission.getRemoteAccount());
+                eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            }
+            for (Submission submission : submissionRepo.findAllById(neverSent)) {
+                submission.setSubmissionStatus("in queue");
+                submission.setVerdict("In queue");
+                submission.setVerdictCode(Verdict.IN_QUEUE);
+                outboxService.pendingSubmit(submission.getId());
+                eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+                queued.add(QueuedSubmission.of(submission));
+            }
+            for (Submission submission : submissionRepo.findAllById(givenUp)) {
+                submission.setSubmissionStatus("failed");
+                submission.setVerdict("Submit Failed");
+                submission.setVerdictCode(Verdict.SUBMIT_FAILED);
+                outboxService.done(submission.getId());
+                eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            }
+            return queued;
+        });
+        logger.info("Reconciled interrupted sends: {} found on the judge, {} re-queued, {} given up",
+                found.size(), neverSent.size(), givenUp.size());
+        if (requeued != null) requeued.forEach(submissionWorker::enqueue);
+    }
+
+    private Decision decide(Sending orphan, Map<String, List<SubmissionScrapedData>> pages, Set<String> claimedRuns) {
+        AccountPool pool = accountPools.get(orphan.judge());
+        VerdictStrategy strategy = verdictStrategies.get(orphan.judge());
+        if (pool == null || strategy == null) return new Decision(null, null, false);
+        Instant from = orphan.sentAt().minus(CLOCK_TOLERANCE);
+        Instant to = orphan.sentAt().plus(window);
+        boolean covered = true;
+        for (String account : pool.getAccounts()) {
+            List<SubmissionScrapedData> runs = pages.computeIfAbsent(orphan.judge() + ":" + account + ":" + orphan.problemCode(),
+                    key -> fetchRuns(orphan, account, strategy));
+            if (runs == null) {
+                covered = false;
+                continue;
+            }
+            Optional<SubmissionScrapedData> match = runs.stream()
+                    .filter(run -> orphan.problemCode().equals(run.getProblemCode()))
+                    .filter(run -> run.getSubmitTime() != null
+                            && !run.getSubmitTime().isBefore(from) && !run.getSubmitTime().isAfter(to))
+                    .filter(run -> !claimedRuns.contains(orphan.judge() + ":" + run.getRemoteId()))
+                    .filter(run -> !submissionRepo.existsByOjTypeAndRemoteRunId(orphan.judge(), run.getRemoteId()))
+                    .min(Comparator.comparing(SubmissionScrapedData::getSubmitTime));
+            if (match.isPresent()) return new Decision(match.get(), account, false);
+            // the page lists the latest runs first, it proves nothing unless it reaches back before the send
+            boolean reachesBack = runs.isEmpty() || runs.stream()
+                    .anyMatch(run -> run.getSubmitTime() != null && run.getSubmitTime().isBefore(from));
+            if (!reachesBack) covered = false;
+        }
+        return new Decision(null, null, covered);
+    }
+
+    private List<SubmissionScrapedData> fetchRuns(Sending orphan, String account, VerdictStrategy strategy) {
+        if (!rateLimiter.tryAcquire(orphan.judge(), account, RemoteOperation.STATUS_POLL)) return null;
+        PendingSubmission lookup = new PendingSubmission(orphan.id(), orphan.judge(), orphan.problemCode(),
+                null, account, orphan.sentAt(), "running");
+        try {
+            return List.copyOf(strategy.fetchVerdicts(List.of(lookup), sessionStore.getCookies(orphan.judge(), account)).values());
+        } catch (Exception exception) {
+            logger.error("Fail to fetch the runs of {} on {} : {}", account, orphan.judge(), exception.getMessage());
+            return null;
+        }
+    }
+
+    private Sending toSending(SubmissionOutbox item) {
+        Submission submission = submissionRepo.findById(item.getSubmissionId()).orElse(null);
+        if (submission == null) return null;
+        return new Sending(submission.getId(), submission.getProblem().getOnlineJudge(),
+                submission.getProblem().getCode(), item.getUpdatedAt());
+    }
+
+    private record Sending(Long id, OnlineJudgeType judge, String problemCode, Instant sentAt) {}
+
+    private record Decision(SubmissionScrapedData run, String account, boolean neverSent) {}
+}
@@ -0,0 +1,84 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.model.submission.SentSource;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the source hash of the submissions stored before the column existed, newest first, and hands the
+ * ones that reached a judge to the {@link AccountRouter}, whose startup seed only reads stored hashes.
+ * Runs once in the background after startup, in small batches so it never holds a long transaction.
+ */
+@Component
+public class SourceHashBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(SourceHashBackfill.class);
+    private final SubmissionRepo submissionRepo;
+    private final AccountRouter router;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public SourceHashBackfill(SubmissionRepo submissionRepo,
+                              AccountRouter router,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${verdict-backfill.batch-size:500}") int batchSize) {
+        this.submissionRepo = submissionRepo;
+        this.router = router;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("source-hash-backfill").start(this::backfill);
+    }
+
+    private void backfill() {
+        int total = 0;
+        try {
+            Batch batch;
+            do {
+                batch = transactionTemplate.execute(status -> {
+                    // filled rows drop out of the query, so the first page is always the next batch
+                    List<Submission> submissions = submissionRepo.findBySourceHashIsNull(PageRequest.of(0, batchSize));
+                    List<SentSource> sent = new ArrayList<>();
+                    for (Submission submission : submissions) {
+                        submission.setSourceHash(RouteRequest.hashSource(submission.getSolution()));
+                        if (submission.getRemoteAccount() != null && submission.getRemoteRunId() != null
+                                && !"0".equals(submission.getRemoteRunId())) {
+                            sent.add(new SentSource(submission.getProblem().getOnlineJudge(), submission.getRemoteAccount(),
+                                    submission.getProblem().getCode(), submission.getSourceHash()));
+                        }
+                    }
+                    submissionRepo.saveAll(submissions);
+                    return new Batch(submissions.size(), sent);
+                });
+                if (batch == null) break;
+                // newest first, so each source is older than everything the router already remembers
+                batch.sent().forEach(source -> router.rememberOlder(source.ojType(), source.remoteAccount(),
+                        new RouteRequest(source.problemCode(), source.sourceHash())));
+                total += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (Exception exception) {
+            logger.error("Source hash backfill stopped after {} submissions : {}", total, exception.getMessage());
+            return;
+        }
+        if (total > 0) logger.info("Backfilled the source hashes of {} submissions", total);
+    }
+
+    private record Batch(int size, List<SentSource> sent) {}
+}
@@ -0,0 +1,58 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.config.judge.SubmissionQueueProperties;
+import com.xjudge.entity.Submission;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.submission.SubmissionEstimate;
+import com.xjudge.util.submissionqueue.SubmissionQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Estimates when a pending submission gets its verdict from the live {@link SubmissionQueue} and the
+ * {@link JudgeLatencyStatistics} of its judge. A queued submission waits for the sends ahead of it, spread over
+ * the judge's in-flight slots, then for its own send and the usual verdict latency.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubmissionEstimator {
+    private final SubmissionQueue submissionQueue;
+    private final JudgeLatencyStatistics latencyStatistics;
+    private final SubmissionQueueProperties submissionQueueProperties;
+
+    public SubmissionEstimate estimate(Submission submission) {
+        String status = submission.getSubmissionStatus();
+        if (status == null) return SubmissionEstimate.NONE;
+        OnlineJudgeType judge = submission.getOjType();
+        Instant now = Instant.now();
+        Duration sendTime = latencyStatistics.getExpectedSendTime(judge);
+        Duration latency = latencyStatistics.getExpectedLatency(judge);
+        switch (status) {
+            case "in queue": {
+                Integer position = submissionQueue.getPosition(submission.getId(), judge);
+                // not handed to the queue yet, it will join at the back
+                if (position == null) position = submissionQueue.getNumberOfQueued(judge) + 1;
+                int slots = Math.max(submissionQueueProperties.getMaxInFlightPerJudge(), 1);
+                long rounds = (position + slots - 1) / slots;
+                return new SubmissionEstimate(position, now.plus(sendTime.multipliedBy(rounds)).plus(latency));
+            }
+            case "running":
+                return new SubmissionEstimate(null, now.plus(sendTime).plus(latency));
+            case "unsubmitted": {
+                Instant retryAt = submission.getNextSubmitAt() == null || submission.getNextSubmitAt().isBefore(now)
+                        ? now : submission.getNextSubmitAt();
+                return new SubmissionEstimate(null, retryAt.plus(sendTime).plus(latency));
+            }
+            case "judging":
+            case "check later": {
+                Instant expected = submission.getSubmitTime() == null ? now : submission.getSubmitTime().plus(latency);
+                return new SubmissionEstimate(null, expected.isBefore(now) ? now : expected);
+            }
+            default:
+                return SubmissionEstimate.NONE;
+        }
+    }
+}
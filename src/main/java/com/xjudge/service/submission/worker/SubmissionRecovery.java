@@ -0,0 +1,87 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.entity.SubmissionOutbox;
+import com.xjudge.model.enums.OutboxState;
+import com.xjudge.repository.SubmissionOutboxRepo;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.util.submissionqueue.QueuedSubmission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks up the submission work a previous run of the application left behind. Submissions that were still
+ * queued go back to the {@link SubmissionWorker}, those it was in the middle of sending are left to the
+ * {@link SendingReconciler}, and runs that already have a remote id are put back in {@code judging}
+ * so the {@link VerdictTracker} polls them again.
+ */
+@Component
+public class SubmissionRecovery {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionRecovery.class);
+    private final SubmissionOutboxRepo outboxRepo;
+    private final SubmissionRepo submissionRepo;
+    private final SubmissionWorker submissionWorker;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    @Autowired
+    public SubmissionRecovery(SubmissionOutboxRepo outboxRepo,
+                              SubmissionRepo submissionRepo,
+                              SubmissionWorker submissionWorker,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${submission-outbox.retention:7d}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.submissionRepo = submissionRepo;
+        this.submissionWorker = submissionWorker;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<QueuedSubmission> requeued = transactionTemplate.execute(status -> {
+            List<QueuedSubmission> queued = new ArrayList<>();
+            for (SubmissionOutbox item : outboxRepo.findByState(OutboxState.PENDING_SUBMIT)) {
+                Submission submission = submissionRepo.findById(item.getSubmissionId()).orElse(null);
+                if (submission == null) continue;
+                // unsubmitted ones are already waiting for the resubmission worker
+                if ("in queue".equals(submission.getSubmissionStatus())) {
+                    queued.add(QueuedSubmission.of(submission));
+                } else if ("running".equals(submission.getSubmissionStatus())) {
+                    // written before the sending state existed, it may have reached the judge
+                    item.setState(OutboxState.SENDING);
+                }
+            }
+            for (SubmissionOutbox item : outboxRepo.findByState(OutboxState.AWAITING_VERDICT)) {
+                Submission submission = submissionRepo.findById(item.getSubmissionId()).orElse(null);
+                if (submission == null || "judging".equals(submission.getSubmissionStatus())
+                        || "check later".equals(submission.getSubmissionStatus())) continue;
+                submission.setRemoteRunId(item.getRemoteRunId());
+                submission.setRemoteAccount(item.getRemoteAccount());
+                submission.setSubmissionStatus("judging");
+            }
+            return queued;
+        });
+        if (requeued == null || requeued.isEmpty()) return;
+        logger.info("Re-queued {} submissions left over by the last run", requeued.size());
+        requeued.forEach(submissionWorker::enqueue);
+    }
+
+    @Scheduled(fixedDelayString = "${submission-outbox.purge-interval-ms:3600000}")
+    public void purgeDoneItems() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepo.deleteDoneBefore(Instant.now().minus(retention)));
+    }
+}
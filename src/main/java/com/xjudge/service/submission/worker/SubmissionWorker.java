@@ -0,0 +1,256 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Compiler;
+import com.xjudge.entity.Problem;
+import com.xjudge.entity.Submission;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.submission.SubmissionInfoModel;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.service.scraping.strategy.SubmissionStrategy;
+import com.xjudge.service.submission.event.SubmissionJudgedEvent;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import com.xjudge.service.submission.event.SubmissionQueuedEvent;
+import com.xjudge.service.submission.outbox.SubmissionOutboxService;
+import com.xjudge.util.circuitbreaker.CircuitBreaker;
+import com.xjudge.util.circuitbreaker.JudgeCircuitBreakers;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.submissionqueue.QueuedSubmission;
+import com.xjudge.util.submissionqueue.SubmissionQueue;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends queued submissions to their online judge off the request thread, in the order the
+ * {@link SubmissionQueue} lets them through. Each one runs on its own virtual thread and moves through
+ * {@code in queue -> running -> judging}, the {@link VerdictTracker} takes it from there.
+ * A submission the judge rejects goes back to {@code unsubmitted} with a retry time, or to
+ * {@code failed} once it used {@code resubmission.max-attempts} attempts. While the circuit of a judge is open
+ * its submissions are parked in {@code unsubmitted} until the circuit lets calls through again, and a submission
+ * we rejected ourselves (no free account, no submit budget left) is parked until the submit budget refills.
+ */
+@Component
+public class SubmissionWorker {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionWorker.class);
+    private final ExecutorService submissionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SubmissionRepo submissionRepo;
+    private final Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionOutboxService outboxService;
+    private final JudgeCircuitBreakers circuitBreakers;
+    private final SubmissionQueue submissionQueue;
+    private final JudgeLatencyStatistics latencyStatistics;
+    private final RemoteRateLimiter rateLimiter;
+    private final int maxSubmitAttempts;
+    private final Duration retryBaseDelay;
+    private final Duration retryMaxDelay;
+
+    @Autowired
+    public SubmissionWorker(SubmissionRepo submissionRepo,
+                            Map<OnlineJudgeType, SubmissionStrategy> submissionStrategies,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            SubmissionOutboxService outboxService,
+                            JudgeCircuitBreakers circuitBreakers,
+                            SubmissionQueue submissionQueue,
+                            JudgeLatencyStatistics latencyStatistics,
+                            RemoteRateLimiter rateLimiter,
+                            @Value("${resubmission.max-attempts:5}") int maxSubmitAttempts,
+                            @Value("${resubmission.base-delay:30s}") Duration retryBaseDelay,
+                            @Value("${resubmission.max-delay:10m}") Duration retryMaxDelay) {
+        this.submissionRepo = submissionRepo;
+        this.submissionStrategies = submissionStrategies;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+        this.circuitBreakers = circuitBreakers;
+        this.submissionQueue = submissionQueue;
+        this.latencyStatistics = latencyStatistics;
+        this.rateLimiter = rateLimiter;
+        this.maxSubmitAttempts = maxSubmitAttempts;
+        this.retryBaseDelay = retryBaseDelay;
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        submissionExecutor.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionQueued(SubmissionQueuedEvent event) {
+        enqueue(event.submission());
+    }
+
+    public void enqueue(QueuedSubmission submission) {
+        if (submissionQueue.offer(submission)) dispatch();
+    }
+
+    private void dispatch() {
+        for (QueuedSubmission next : submissionQueue.pollDispatchable()) {
+            submissionExecutor.execute(() -> {
+                try {
+                    process(next.submissionId());
+                } finally {
+                    submissionQueue.release(next);
+                    dispatch();
+                }
+            });
+        }
+    }
+
+    private void process(Long submissionId) {
+        Claim claim = transactionTemplate.execute(status -> {
+            Submission submission = submissionRepo.findById(submissionId).orElse(null);
+            if (submission == null) return null;
+            OnlineJudgeType judge = submission.getProblem().getOnlineJudge();
+            CircuitBreaker.Permit permit = circuitBreakers.tryAcquirePermission(judge);
+            if (!permit.permitted()) {
+                park(submission, circuitBreakers.getRetryAt(judge));
+                return new Claim(null, permit, true);
+            }
+            submission.setSubmissionStatus("running");
+            submission.setVerdict("Running");
+            submission.setVerdictCode(Verdict.RUNNING);
+            outboxService.sending(submission.getId());
+            eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            return new Claim(getSubmissionInfo(submission), permit, false);
+        });
+        if (claim == null) {
+            logger.warn("Submission {} disappeared before it was sent", submissionId);
+            return;
+        }
+        if (claim.parked()) {
+            logger.info("Parked submission {} while its judge is unavailable", submissionId);
+            return;
+        }
+        SubmissionInfoModel info = claim.info();
+
+        SubmissionStrategy strategy = submissionStrategies.get(info.ojType());
+        Submission result = null;
+        boolean rejectedLocally = false;
+        long start = System.nanoTime();
+        try {
+            result = strategy.submit(info);
+            Duration sendTime = Duration.ofNanos(System.nanoTime() - start);
+            boolean rejected = "unsubmitted".equalsIgnoreCase(result.getSubmissionStatus());
+            circuitBreakers.onResult(info.ojType(), claim.permit(), rejected, sendTime);
+            if (!rejected) latencyStatistics.recordSendTime(info.ojType(), sendTime);
+        } catch (Exception exception) {
+            logger.error("Fail to submit {} : {}", submissionId, exception.getMessage());
+            // no free account or no submit budget left, the judge itself wasn't reached
+            rejectedLocally = exception instanceof XJudgeException rejected && strategy.isRejectedLocally(rejected);
+            // the judge answered and refused the source itself (language, duplicate, size), it is healthy
+            boolean rejectedByJudge = exception instanceof XJudgeException rejected && strategy.isRejectedByJudge(rejected);
+            if (rejectedLocally) circuitBreakers.onIgnored(info.ojType(), claim.permit());
+            else circuitBreakers.onResult(info.ojType(), claim.permit(), !rejectedByJudge, Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        Submission remoteResult = result;
+        boolean parked = rejectedLocally;
+        Boolean judged = transactionTemplate.execute(status -> {
+            Submission submission = submissionRepo.findById(submissionId).orElseThrow();
+            if (parked) {
+                park(submission, Instant.now().plus(rateLimiter.getRefillPeriod(RemoteOperation.SUBMIT)));
+                updateOutbox(submission);
+                return false;
+            }
+            if (remoteResult == null) {
+                submission.setSubmissionStatus("unsubmitted");
+                submission.setVerdict("Waiting Judge");
+                submission.setVerdictCode(Verdict.IN_QUEUE);
+            } else {
+                updateSubmissionStatus(submission, remoteResult);
+            }
+            if ("unsubmitted".equalsIgnoreCase(submission.getSubmissionStatus())) {
+                scheduleRetry(submission);
+            }
+            updateOutbox(submission);
+            eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            return "submitted".equalsIgnoreCase(submission.getSubmissionStatus());
+        });
+        if (Boolean.TRUE.equals(judged)) {
+            eventPublisher.publishEvent(new SubmissionJudgedEvent(submissionId));
+        }
+    }
+
+    /**
+     * Leaves a failed submission to the {@link ResubmissionWorker} after an exponential delay,
+     * or gives up on it once it used all of its attempts.
+     */
+    private void scheduleRetry(Submission submission) {
+        int attempts = (submission.getSubmitAttempts() == null ? 0 : submission.getSubmitAttempts()) + 1;
+        submission.setSubmitAttempts(attempts);
+        if (attempts >= maxSubmitAttempts) {
+            submission.setSubmissionStatus("failed");
+            submission.setVerdict("Submit Failed");
+            submission.setVerdictCode(Verdict.SUBMIT_FAILED);
+            submission.setNextSubmitAt(null);
+            return;
+        }
+        Duration delay = retryBaseDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        submission.setNextSubmitAt(Instant.now().plus(delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay));
+    }
+
+    /**
+     * Keeps a submission in the retry queue until {@code retryAt} without spending one of its submit attempts.
+     */
+    private void park(Submission submission, Instant retryAt) {
+        submission.setSubmissionStatus("unsubmitted");
+        submission.setVerdict("Waiting Judge");
+        submission.setVerdictCode(Verdict.IN_QUEUE);
+        submission.setNextSubmitAt(retryAt);
+        eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+    }
+
+    private void updateOutbox(Submission submission) {
+        switch (submission.getSubmissionStatus()) {
+            case "judging" -> outboxService.awaitingVerdict(submission.getId(), submission.getRemoteRunId(), submission.getRemoteAccount());
+            case "submitted", "failed" -> outboxService.done(submission.getId());
+            default -> outboxService.pendingSubmit(submission.getId());
+        }
+    }
+
+    private void updateSubmissionStatus(Submission storedSubmission , Submission updatedSubmission){
+        storedSubmission.setSubmissionStatus(updatedSubmission.getSubmissionStatus());
+        storedSubmission.setMemoryUsage(updatedSubmission.getMemoryUsage());
+        storedSubmission.setVerdict(updatedSubmission.getVerdict());
+        storedSubmission.setVerdictCode(updatedSubmission.getVerdictCode());
+        storedSubmission.setTestNumber(updatedSubmission.getTestNumber());
+        storedSubmission.setTimeMs(updatedSubmission.getTimeMs());
+        storedSubmission.setMemoryKb(updatedSubmission.getMemoryKb());
+        storedSubmission.setTimeUsage(updatedSubmission.getTimeUsage());
+        storedSubmission.setRemoteRunId(updatedSubmission.getRemoteRunId());
+        storedSubmission.setRemoteAccount(updatedSubmission.getRemoteAccount());
+    }
+
+    private record Claim(SubmissionInfoModel info, CircuitBreaker.Permit permit, boolean parked) {}
+
+    private SubmissionInfoModel getSubmissionInfo(Submission submission){
+        Problem problem = submission.getProblem();
+        return SubmissionInfoModel.builder()
+                .code(problem.getCode())
+                .ojType(problem.getOnlineJudge())
+                .solutionCode(submission.getSolution())
+                .isOpen(submission.getIsOpen())
+                .compiler((Compiler) Hibernate.unproxy(submission.getCompiler()))
+                .build();
+    }
+}
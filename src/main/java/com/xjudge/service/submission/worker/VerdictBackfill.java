@@ -0,0 +1,74 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.util.UsageParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills the structured verdict, test number, time and memory columns of the submissions stored
+ * before they existed by parsing their scraped text. Runs once in the background after startup,
+ * in small batches so it never holds a long transaction.
+ */
+@Component
+public class VerdictBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(VerdictBackfill.class);
+    private final SubmissionRepo submissionRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public VerdictBackfill(SubmissionRepo submissionRepo,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${verdict-backfill.batch-size:500}") int batchSize) {
+        this.submissionRepo = submissionRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("verdict-backfill").start(this::backfill);
+    }
+
+    private void backfill() {
+        int total = 0;
+        try {
+            Integer updated;
+            do {
+                updated = transactionTemplate.execute(status -> {
+                    // filled rows drop out of the query, so the first page is always the next batch
+                    List<Submission> submissions = submissionRepo.findByVerdictCodeIsNull(PageRequest.of(0, batchSize));
+                    submissions.forEach(this::fill);
+                    submissionRepo.saveAll(submissions);
+                    return submissions.size();
+                });
+                total += updated == null ? 0 : updated;
+            } while (updated != null && updated == batchSize);
+        } catch (Exception exception) {
+            logger.error("Verdict backfill stopped after {} submissions : {}", total, exception.getMessage());
+            return;
+        }
+        if (total > 0) logger.info("Backfilled the verdict columns of {} submissions", total);
+    }
+
+    private void fill(Submission submission) {
+        submission.setVerdictCode("failed".equals(submission.getSubmissionStatus())
+                ? Verdict.SUBMIT_FAILED
+                : Verdict.parse(submission.getVerdict()));
+        submission.setTestNumber(Verdict.parseTestNumber(submission.getVerdict()));
+        submission.setTimeMs(UsageParser.parseTimeMs(submission.getTimeUsage()));
+        submission.setMemoryKb(UsageParser.parseMemoryKb(submission.getMemoryUsage()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.model.submission.PendingSubmission;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when a pending run is polled next. The first poll waits half of the judge's usual
+ * latency, every poll that finds no final verdict doubles the delay (with jitter) up to
+ * {@code verdict-tracker.max-delay}, and a run still pending after {@code verdict-tracker.max-wait}
+ * moves to {@code check later}, which is polled every {@code verdict-tracker.check-later-interval}
+ * until it is given up {@code verdict-tracker.give-up-after} after it was sent.
+ */
+@Component
+public class VerdictPollSchedule {
+    private final Map<Long, Poll> polls = new ConcurrentHashMap<>();
+    private final JudgeLatencyStatistics latencyStatistics;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final Duration maxWait;
+    private final Duration checkLaterInterval;
+    private final Duration giveUpAfter;
+
+    @Autowired
+    public VerdictPollSchedule(JudgeLatencyStatistics latencyStatistics,
+                               @Value("${verdict-tracker.min-delay:1s}") Duration minDelay,
+                               @Value("${verdict-tracker.max-delay:30s}") Duration maxDelay,
+                               @Value("${verdict-tracker.max-wait:10m}") Duration maxWait,
+                               @Value("${verdict-tracker.check-later-interval:5m}") Duration checkLaterInterval,
+                               @Value("${verdict-tracker.give-up-after:24h}") Duration giveUpAfter) {
+        this.latencyStatistics = latencyStatistics;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.maxWait = maxWait;
+        this.checkLaterInterval = checkLaterInterval;
+        this.giveUpAfter = giveUpAfter;
+    }
+
+    public boolean isDue(PendingSubmission submission, Instant now) {
+        Poll poll = polls.computeIfAbsent(submission.id(), id -> new Poll(0, firstPoll(submission)));
+        return !now.isBefore(poll.next());
+    }
+
+    public void onPolled(PendingSubmission submission, Instant now) {
+        polls.compute(submission.id(), (id, poll) -> {
+            int attempts = poll == null ? 1 : poll.attempts() + 1;
+            Duration delay = "check later".equals(submission.status()) ? checkLaterInterval : backoff(attempts);
+            return new Poll(attempts, now.plus(delay));
+        });
+    }
+
+    public void onJudged(PendingSubmission submission, Instant now) {
+        polls.remove(submission.id());
+        if (submission.submitTime() != null && "judging".equals(submission.status())) {
+            latencyStatistics.record(submission.ojType(), Duration.between(submission.submitTime(), now));
+        }
+    }
+
+    public boolean isExpired(PendingSubmission submission, Instant now) {
+        return submission.submitTime() != null && submission.submitTime().plus(maxWait).isBefore(now);
+    }
+
+    /**
+     * @return true when a {@code check later} run waited so long it will most likely never be matched again,
+     * having dropped off the status page of its account
+     */
+    public boolean isAbandoned(PendingSubmission submission, Instant now) {
+        return "check later".equals(submission.status())
+                && (submission.submitTime() == null || submission.submitTime().plus(giveUpAfter).isBefore(now));
+    }
+
+    /**
+     * Drops the schedule of runs that are no longer pending.
+     */
+    public void retain(Collection<Long> pendingIds) {
+        polls.keySet().retainAll(pendingIds);
+    }
+
+    private Instant firstPoll(PendingSubmission submission) {
+        Instant submitTime = submission.submitTime() == null ? Instant.now() : submission.submitTime();
+        Duration seed = latencyStatistics.getExpectedLatency(submission.ojType()).dividedBy(2);
+        return submitTime.plus(seed.compareTo(minDelay) < 0 ? minDelay : seed);
+    }
+
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxDelay.toMillis(), minDelay.toMillis() << Math.min(attempts, 20));
+        // equal jitter: never less than half the ceiling, so polls don't line up across runs
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        return Duration.ofMillis(delay);
+    }
+
+    private record Poll(int attempts, Instant next) {}
+}
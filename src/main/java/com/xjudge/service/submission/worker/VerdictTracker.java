@@ -0,0 +1,227 @@
+package com.xjudge.service.submission.worker;
+
+import com.xjudge.entity.Submission;
+import com.xjudge.entity.SubmissionOutbox;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.OutboxState;
+import com.xjudge.model.enums.Verdict;
+import com.xjudge.model.scrap.SubmissionScrapedData;
+import com.xjudge.model.submission.PendingSubmission;
+import com.xjudge.repository.SubmissionOutboxRepo;
+import com.xjudge.repository.SubmissionRepo;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
+import com.xjudge.service.scraping.strategy.VerdictStrategy;
+import com.xjudge.service.submission.event.SubmissionJudgedEvent;
+import com.xjudge.service.submission.event.SubmissionProgressEvent;
+import com.xjudge.service.submission.outbox.SubmissionOutboxService;
+import com.xjudge.util.ratelimit.RemoteOperation;
+import com.xjudge.util.ratelimit.RemoteRateLimiter;
+import com.xjudge.util.routing.AccountRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the verdict of runs that are already on the online judge ({@code judging} status)
+ * with plain HTTP requests made with the session cookies of the submitting account,
+ * so no browser is held while the judge is testing. An account is polled only when one of its
+ * runs is due according to the {@link VerdictPollSchedule}, and a single fetch of its status page
+ * resolves every pending run of that account in one batch. Runs left in {@code check later} for too long are
+ * given up as {@code failed} with an unknown verdict, and only {@code judging} runs count as in-flight load.
+ * The pending runs are read as a projection, so a tick costs a single query however many runs wait.
+ */
+@Component
+public class VerdictTracker {
+    private static final Logger logger = LoggerFactory.getLogger(VerdictTracker.class);
+    private final SubmissionRepo submissionRepo;
+    private final SubmissionOutboxRepo outboxRepo;
+    private final Map<OnlineJudgeType, VerdictStrategy> verdictStrategies;
+    private final JudgeSessionStore sessionStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RemoteRateLimiter rateLimiter;
+    private final VerdictPollSchedule pollSchedule;
+    private final AccountRouter router;
+    private final SubmissionOutboxService outboxService;
+
+    @Autowired
+    public VerdictTracker(SubmissionRepo submissionRepo,
+                          SubmissionOutboxRepo outboxRepo,
+                          Map<OnlineJudgeType, VerdictStrategy> verdictStrategies,
+                          JudgeSessionStore sessionStore,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          RemoteRateLimiter rateLimiter,
+                          VerdictPollSchedule pollSchedule,
+                          AccountRouter router,
+                          SubmissionOutboxService outboxService) {
+        this.submissionRepo = submissionRepo;
+        this.outboxRepo = outboxRepo;
+        this.verdictStrategies = verdictStrategies;
+        this.sessionStore = sessionStore;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.rateLimiter = rateLimiter;
+        this.pollSchedule = pollSchedule;
+        this.router = router;
+        this.outboxService = outboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${verdict-tracker.interval-ms:1000}")
+    public void trackPendingVerdicts() {
+        List<PendingSubmission> pendingSubmissions = submissionRepo.findPendingVerdicts();
+        List<Long> withoutAccount = pendingSubmissions.stream()
+                .filter(submission -> submission.remoteAccount() == null)
+                .map(PendingSubmission::id)
+                .toList();
+        if (!withoutAccount.isEmpty()) {
+            resolveAccounts(withoutAccount);
+            pendingSubmissions = pendingSubmissions.stream()
+                    .filter(submission -> submission.remoteAccount() != null)
+                    .toList();
+        }
+        Instant now = Instant.now();
+        List<Long> abandoned = pendingSubmissions.stream()
+                .filter(submission -> pollSchedule.isAbandoned(submission, now))
+                .map(PendingSubmission::id)
+                .toList();
+        if (!abandoned.isEmpty()) {
+            giveUp(abandoned);
+            pendingSubmissions = pendingSubmissions.stream()
+                    .filter(submission -> !abandoned.contains(submission.id()))
+                    .toList();
+        }
+        pollSchedule.retain(pendingSubmissions.stream().map(PendingSubmission::id).toList());
+
+        // one status fetch per remote account instead of one per pending run
+        Map<OnlineJudgeType, Map<String, List<PendingSubmission>>> byAccount = pendingSubmissions.stream()
+                .collect(Collectors.groupingBy(PendingSubmission::ojType,
+                        Collectors.groupingBy(PendingSubmission::remoteAccount)));
+        // check later runs were most likely judged long ago, they aren't load on the account
+        Map<OnlineJudgeType, Map<String, Long>> inFlight = pendingSubmissions.stream()
+                .filter(submission -> "judging".equals(submission.status()))
+                .collect(Collectors.groupingBy(PendingSubmission::ojType,
+                        Collectors.groupingBy(PendingSubmission::remoteAccount, Collectors.counting())));
+        verdictStrategies.keySet().forEach(ojType -> router.updateInFlight(ojType,
+                inFlight.getOrDefault(ojType, Map.of()).entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().intValue()))));
+
+        byAccount.forEach((ojType, accounts) -> {
+            VerdictStrategy strategy = verdictStrategies.get(ojType);
+            if (strategy == null) return;
+            accounts.forEach((account, submissions) -> {
+                if (submissions.stream().noneMatch(submission -> pollSchedule.isDue(submission, now))) return;
+                // an account out of poll budget is simply checked again on a later tick
+                if (!rateLimiter.tryAcquire(ojType, account, RemoteOperation.STATUS_POLL)) return;
+                try {
+                    Map<String, SubmissionScrapedData> verdicts =
+                            strategy.fetchVerdicts(submissions, sessionStore.getCookies(ojType, account));
+                    applyVerdicts(submissions, verdicts, now);
+                } catch (Exception exception) {
+                    logger.error("Fail to fetch the verdicts of {} on {} : {}", account, ojType, exception.getMessage());
+                    submissions.forEach(submission -> pollSchedule.onPolled(submission, now));
+                }
+            });
+        });
+    }
+
+    private void applyVerdicts(List<PendingSubmission> submissions, Map<String, SubmissionScrapedData> verdicts, Instant now) {
+        Map<Long, SubmissionScrapedData> matched = new HashMap<>();
+        List<Long> expired = new ArrayList<>();
+        List<Long> judged = new ArrayList<>();
+        for (PendingSubmission submission : submissions) {
+            SubmissionScrapedData data = verdicts.get(submission.remoteRunId());
+            if (data != null) matched.put(submission.id(), data);
+            if (data != null && data.getVerdictCode().isFinal()) {
+                judged.add(submission.id());
+                pollSchedule.onJudged(submission, now);
+                continue;
+            }
+            pollSchedule.onPolled(submission, now);
+            if ("judging".equals(submission.status()) && pollSchedule.isExpired(submission, now)) {
+                expired.add(submission.id());
+            }
+        }
+        if (matched.isEmpty() && expired.isEmpty()) return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = new ArrayList<>(matched.keySet());
+            ids.addAll(expired);
+            List<Submission> storedSubmissions = submissionRepo.findAllById(ids);
+            for (Submission submission : storedSubmissions) {
+                SubmissionScrapedData data = matched.get(submission.getId());
+                SubmissionProgressEvent before = SubmissionProgressEvent.of(submission);
+                if (data != null) {
+                    submission.setVerdict(data.getVerdict());
+                    submission.setTimeUsage(data.getTime());
+                    submission.setMemoryUsage(data.getMemory());
+                    submission.setVerdictCode(data.getVerdictCode());
+                    submission.setTestNumber(data.getTestNumber());
+                    submission.setTimeMs(data.getTimeMs());
+                    submission.setMemoryKb(data.getMemoryKb());
+                }
+                if (judged.contains(submission.getId())) {
+                    submission.setSubmissionStatus("submitted");
+                    submission.setJudgedAt(now);
+                    outboxService.done(submission.getId());
+                } else if (expired.contains(submission.getId())) {
+                    submission.setSubmissionStatus("check later");
+                }
+                SubmissionProgressEvent after = SubmissionProgressEvent.of(submission);
+                // most polls see the same "Running on test N" again, only changes are streamed
+                if (!after.equals(before)) eventPublisher.publishEvent(after);
+            }
+            submissionRepo.saveAll(storedSubmissions);
+        });
+        judged.forEach(id -> eventPublisher.publishEvent(new SubmissionJudgedEvent(id)));
+    }
+
+    private void giveUp(List<Long> ids) {
+        logger.warn("Giving up on the verdict of submissions {}", ids);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Submission> storedSubmissions = submissionRepo.findAllById(ids);
+            for (Submission submission : storedSubmissions) {
+                submission.setSubmissionStatus("failed");
+                submission.setVerdict("Verdict Unavailable");
+                submission.setVerdictCode(Verdict.UNKNOWN);
+                outboxService.done(submission.getId());
+                eventPublisher.publishEvent(SubmissionProgressEvent.of(submission));
+            }
+            submissionRepo.saveAll(storedSubmissions);
+        });
+    }
+
+    /**
+     * Runs can only be polled through the account that sent them. A run stored without its account takes it back
+     * from its outbox item and is polled from the next tick on, one whose account is lost is given up.
+     */
+    private void resolveAccounts(List<Long> ids) {
+        List<Long> lost = transactionTemplate.execute(status -> {
+            List<Long> unresolved = new ArrayList<>();
+            for (Submission submission : submissionRepo.findAllById(ids)) {
+                SubmissionOutbox item = outboxRepo.findBySubmissionId(submission.getId())
+                        .filter(outbox -> outbox.getState() == OutboxState.AWAITING_VERDICT && outbox.getRemoteAccount() != null)
+                        .orElse(null);
+                if (item == null) {
+                    unresolved.add(submission.getId());
+                    continue;
+                }
+                submission.setRemoteAccount(item.getRemoteAccount());
+                if (submission.getRemoteRunId() == null) submission.setRemoteRunId(item.getRemoteRunId());
+            }
+            return unresolved;
+        });
+        if (lost != null && !lost.isEmpty()) giveUp(lost);
+    }
+}
@@ -30,10 +30,9 @@ public class CommandLineStartupRunner implements CommandLineRunner {
 
         addUser();
 
-        if(compilerRepo.count() == 0) {
-            addCodeForcesCompilerList();
-            addAtCoderCompilerList();
-        }
+        if(compilerRepo.countByOnlineJudgeType(OnlineJudgeType.codeforces) == 0) addCodeForcesCompilerList();
+        if(compilerRepo.countByOnlineJudgeType(OnlineJudgeType.atcoder) == 0) addAtCoderCompilerList();
+        if(compilerRepo.countByOnlineJudgeType(OnlineJudgeType.spoj) == 0) addSpojCompilerList();
     }
 
     private void addUser() {
@@ -198,4 +197,27 @@ public class CommandLineStartupRunner implements CommandLineRunner {
 
         compilerRepo.saveAll(compilerList);
     }
+
+    private void addSpojCompilerList() {
+        List<Compiler> compilerList = List.of(
+                Compiler.builder().idValue("11").name("C (gcc 8.3)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("1").name("C++ (gcc 8.3)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("44").name("C++14 (gcc 8.3)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("27").name("C# (gmcs 5.20.1)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("10").name("Java (HotSpot 12)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("47").name("Kotlin (kotlin 1.3.21)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("4").name("Python (cpython 2.7.16)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("116").name("Python 3 (python 3.7.3)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("114").name("Go (go 1.12.1)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("93").name("Rust (rust 1.33.0)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("17").name("Ruby (ruby 2.5.5)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("22").name("Pascal (fpc 3.0.4)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("21").name("Haskell (ghc 8.4.4)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("29").name("PHP (php 7.3.5)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("3").name("Perl (perl 5.28.1)").onlineJudgeType(OnlineJudgeType.spoj).build(),
+                Compiler.builder().idValue("112").name("JavaScript (SMonkey 60.2.3)").onlineJudgeType(OnlineJudgeType.spoj).build()
+        );
+
+        compilerRepo.saveAll(compilerList);
+    }
 }
@@ -0,0 +1,43 @@
+package com.xjudge.util;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the time and memory usage shown by the online judges ("46 ms", "0.12", "3904 KiB", "2.5M")
+ * into plain numbers.
+ */
+public final class UsageParser {
+    private static final Pattern AMOUNT = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([a-z]*)");
+
+    private UsageParser() {
+    }
+
+    public static Integer parseTimeMs(String text) {
+        Matcher matcher = match(text);
+        if (matcher == null) return null;
+        double amount = Double.parseDouble(matcher.group(1));
+        String unit = matcher.group(2);
+        // SPOJ shows plain seconds ("0.12"), the others milliseconds
+        boolean seconds = unit.equals("s") || unit.equals("sec") || (unit.isEmpty() && matcher.group(1).contains("."));
+        return (int) Math.round(seconds ? amount * 1000 : amount);
+    }
+
+    public static Integer parseMemoryKb(String text) {
+        Matcher matcher = match(text);
+        if (matcher == null) return null;
+        double amount = Double.parseDouble(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit.startsWith("g")) return (int) Math.round(amount * 1024 * 1024);
+        if (unit.startsWith("m")) return (int) Math.round(amount * 1024);
+        if (unit.equals("b")) return (int) Math.round(amount / 1024);
+        return (int) Math.round(amount);
+    }
+
+    private static Matcher match(String text) {
+        if (text == null) return null;
+        Matcher matcher = AMOUNT.matcher(text.trim().toLowerCase(Locale.ROOT));
+        return matcher.find() ? matcher : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.xjudge.util.accountpool;
+
+import com.xjudge.config.judge.JudgeProperties;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A judge account borrowed from an {@link AccountPool}, meant to be used with try-with-resources.
+ * Closing the lease more than once returns the account to the pool only the first time.
+ */
+public class AccountLease implements AutoCloseable {
+    private final AccountPool pool;
+    @Getter
+    private final JudgeProperties.Account account;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    public AccountLease(AccountPool pool, JudgeProperties.Account account) {
+        this.pool = pool;
+        this.account = account;
+    }
+
+    public String getUsername() {
+        return account.getUsername();
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.releaseAccount(account);
+        }
+    }
+}
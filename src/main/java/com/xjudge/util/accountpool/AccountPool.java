@@ -0,0 +1,105 @@
+package com.xjudge.util.accountpool;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the judge accounts to the HTTP submitters, one caller per account at a time so the
+ * run id read back from the status page always belongs to the caller. Which free account a caller
+ * gets is decided by the {@link AccountRouter}; callers park on a fair lock until a suitable account
+ * is released and get a 503 when none frees up within the acquire timeout.
+ */
+public abstract class AccountPool {
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition accountReleased = lock.newCondition();
+    private final Map<String, JudgeProperties.Account> freeAccounts = new LinkedHashMap<>();
+    private final List<String> accounts;
+    private final AccountRouter router;
+    private final OnlineJudgeType judge;
+    private final Duration acquireTimeout;
+    private int waitingCallers;
+
+    protected AccountPool(JudgeProperties properties, AccountRouter router, OnlineJudgeType judge, Duration acquireTimeout) {
+        this.router = router;
+        this.judge = judge;
+        this.acquireTimeout = acquireTimeout;
+        this.accounts = properties.getAccounts().stream().map(JudgeProperties.Account::getUsername).toList();
+        properties.getAccounts().forEach(account -> freeAccounts.put(account.getUsername(), account));
+    }
+
+    public AccountLease acquire(RouteRequest request) {
+        lock.lock();
+        waitingCallers++;
+        try {
+            long remaining = acquireTimeout.toNanos();
+            while (true) {
+                Optional<String> chosen = router.choose(judge, freeAccounts.keySet(), accounts, request);
+                if (chosen.isPresent()) {
+                    return new AccountLease(this, freeAccounts.remove(chosen.get()));
+                }
+                if (remaining <= 0) {
+                    throw new XJudgeException("All accounts are busy, try again later", getClass().getName(), HttpStatus.SERVICE_UNAVAILABLE);
+                }
+                remaining = accountReleased.awaitNanos(remaining);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new XJudgeException("Interrupted while waiting for a free account", getClass().getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        } finally {
+            waitingCallers--;
+            lock.unlock();
+        }
+    }
+
+    public void releaseAccount(JudgeProperties.Account account) {
+        lock.lock();
+        try {
+            freeAccounts.put(account.getUsername(), account);
+            accountReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OnlineJudgeType getJudge() {
+        return judge;
+    }
+
+    public List<String> getAccounts() {
+        return accounts;
+    }
+
+    public int getNumberOfAccounts() {
+        return accounts.size();
+    }
+
+    public int getNumberOfBusyAccounts() {
+        lock.lock();
+        try {
+            return accounts.size() - freeAccounts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumberOfWaitingCallers() {
+        lock.lock();
+        try {
+            return waitingCallers;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.xjudge.util.accountpool;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.util.routing.AccountRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class SpojAccountPool extends AccountPool {
+
+    @Autowired
+    public SpojAccountPool(@Qualifier("spojProperties") JudgeProperties spojProperties,
+                           AccountRouter router,
+                           @Value("${driver-pool.acquire-timeout:30s}") Duration acquireTimeout) {
+        super(spojProperties, router, OnlineJudgeType.spoj, acquireTimeout);
+    }
+}
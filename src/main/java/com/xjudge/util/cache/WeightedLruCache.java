@@ -0,0 +1,103 @@
+package com.xjudge.util.cache;
+
+import com.xjudge.model.cache.CacheStatistics;
+import com.xjudge.util.SingleFlight;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least recently used cache bounded both by its number of entries and by the total weight of its values.
+ * Misses on the same key are loaded once, and a value heavier than the whole budget is returned without being kept.
+ */
+public class WeightedLruCache<K, V> {
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long generation;
+
+    public WeightedLruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.value();
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        return loads.execute(key, () -> {
+            V value = loader.get();
+            synchronized (this) {
+                // an invalidation while loading may have made the loaded value stale already
+                if (value != null && loadGeneration == generation) put(key, value);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * @return the cached value, or null without loading it
+     */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        remove(key);
+        if (valueWeight > maxWeight) return;
+        entries.put(key, new Entry<>(value, valueWeight));
+        weight += valueWeight;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(entries.size(), maxEntries, weight, maxWeight, hits, misses, evictions);
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) weight -= removed.weight();
+    }
+
+    private record Entry<V>(V value, long weight) {}
+}
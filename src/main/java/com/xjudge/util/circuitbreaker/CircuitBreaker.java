@@ -0,0 +1,147 @@
+package com.xjudge.util.circuitbreaker;
+
+import com.xjudge.config.judge.CircuitBreakerProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Count based circuit breaker over the last {@code windowSize} calls to one remote judge.
+ * It opens once too many of them failed or were slow, rejects calls while open, and after
+ * {@code openDuration} lets a single probe through: the probe closes it again or re-opens it.
+ * Callers hand the {@link Permit} they got back with their result, so late results of calls let through
+ * before the circuit opened never decide a half-open circuit.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * @param probe the probe this permit stands for, 0 for an ordinary call
+     */
+    public record Permit(boolean permitted, long probe) {
+        public static final Permit REJECTED = new Permit(false, 0);
+        public static final Permit ALLOWED = new Permit(true, 0);
+
+        public boolean isProbe() {
+            return probe != 0;
+        }
+    }
+
+    private final CircuitBreakerProperties properties;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int calls;
+    private int next;
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private Instant probeStartedAt;
+    private long probe;
+    private long probeCount;
+
+    public CircuitBreaker(CircuitBreakerProperties properties) {
+        this.properties = properties;
+        this.failedCalls = new boolean[properties.getWindowSize()];
+        this.slowCalls = new boolean[properties.getWindowSize()];
+    }
+
+    public synchronized Permit tryAcquirePermission(Instant now) {
+        switch (state) {
+            case CLOSED:
+                return Permit.ALLOWED;
+            case OPEN:
+                if (now.isBefore(getRetryAt())) return Permit.REJECTED;
+                state = State.HALF_OPEN;
+                return startProbe(now);
+            default:
+                // one probe at a time, a probe that never reported back is replaced after a while
+                if (probe != 0 && now.isBefore(probeStartedAt.plus(properties.getOpenDuration()))) return Permit.REJECTED;
+                return startProbe(now);
+        }
+    }
+
+    public synchronized void onResult(Permit permit, boolean failure, Duration latency, Instant now) {
+        boolean slow = latency.compareTo(properties.getSlowCallDuration()) >= 0;
+        if (state == State.HALF_OPEN) {
+            // only the current probe decides, not calls let through before the circuit opened
+            if (!isCurrentProbe(permit)) return;
+            if (failure || slow) open(now);
+            else close();
+            return;
+        }
+        // late results of calls made before the circuit opened
+        if (state == State.OPEN) return;
+        failedCalls[next] = failure;
+        slowCalls[next] = slow;
+        next = (next + 1) % failedCalls.length;
+        calls = Math.min(calls + 1, failedCalls.length);
+        if (calls >= properties.getMinimumCalls()
+                && (rate(failedCalls) >= properties.getFailureRateThreshold()
+                || rate(slowCalls) >= properties.getSlowCallRateThreshold())) {
+            open(now);
+        }
+    }
+
+    /**
+     * Gives the probe permission back when the call never reached the judge.
+     */
+    public synchronized void onIgnored(Permit permit) {
+        if (state == State.HALF_OPEN && isCurrentProbe(permit)) probe = 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isOpen(Instant now) {
+        return state == State.OPEN && now.isBefore(getRetryAt());
+    }
+
+    public synchronized Instant getRetryAt() {
+        return state == State.OPEN ? openedAt.plus(properties.getOpenDuration()) : Instant.now();
+    }
+
+    public synchronized double getFailureRate() {
+        return rate(failedCalls);
+    }
+
+    public synchronized double getSlowCallRate() {
+        return rate(slowCalls);
+    }
+
+    private Permit startProbe(Instant now) {
+        probe = ++probeCount;
+        probeStartedAt = now;
+        return new Permit(true, probe);
+    }
+
+    private boolean isCurrentProbe(Permit permit) {
+        return permit.isProbe() && permit.probe() == probe;
+    }
+
+    private void open(Instant now) {
+        state = State.OPEN;
+        openedAt = now;
+        probe = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probe = 0;
+        calls = 0;
+        next = 0;
+        Arrays.fill(failedCalls, false);
+        Arrays.fill(slowCalls, false);
+    }
+
+    private double rate(boolean[] outcomes) {
+        if (calls == 0) return 0;
+        int count = 0;
+        for (int i = 0; i < calls; i++) {
+            if (outcomes[i]) count++;
+        }
+        return 100.0 * count / calls;
+    }
+}
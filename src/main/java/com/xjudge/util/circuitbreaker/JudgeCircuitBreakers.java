@@ -0,0 +1,104 @@
+package com.xjudge.util.circuitbreaker;
+
+import com.xjudge.config.judge.CircuitBreakerProperties;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One {@link CircuitBreaker} per online judge, so an outage of one judge fails fast for that judge only
+ * instead of tying up drivers, accounts and threads that the other judges need.
+ */
+@Component
+public class JudgeCircuitBreakers {
+    private static final Logger logger = LoggerFactory.getLogger(JudgeCircuitBreakers.class);
+    private final Map<OnlineJudgeType, CircuitBreaker> breakers = new EnumMap<>(OnlineJudgeType.class);
+
+    @Autowired
+    public JudgeCircuitBreakers(CircuitBreakerProperties circuitBreakerProperties) {
+        for (OnlineJudgeType judge : OnlineJudgeType.values()) {
+            breakers.put(judge, new CircuitBreaker(circuitBreakerProperties));
+        }
+    }
+
+    public CircuitBreaker.Permit tryAcquirePermission(OnlineJudgeType judge) {
+        return breakers.get(judge).tryAcquirePermission(Instant.now());
+    }
+
+    public void onResult(OnlineJudgeType judge, CircuitBreaker.Permit permit, boolean failure, Duration latency) {
+        CircuitBreaker breaker = breakers.get(judge);
+        CircuitBreaker.State before = breaker.getState();
+        breaker.onResult(permit, failure, latency, Instant.now());
+        CircuitBreaker.State after = breaker.getState();
+        if (before != after) logger.warn("Circuit of {} went from {} to {}", judge, before, after);
+    }
+
+    public void onIgnored(OnlineJudgeType judge, CircuitBreaker.Permit permit) {
+        breakers.get(judge).onIgnored(permit);
+    }
+
+    /**
+     * Runs a remote call through the circuit of the judge, failing with 503 while the circuit is open.
+     * Client errors (4xx) mean the judge answered and count as successes, our own rate limit (429) isn't counted.
+     */
+    public <T> T call(OnlineJudgeType judge, Supplier<T> call) {
+        CircuitBreaker.Permit permit = tryAcquirePermission(judge);
+        if (!permit.permitted()) {
+            throw new XJudgeException(judge + " is unavailable, try again later", JudgeCircuitBreakers.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return observe(judge, permit, call);
+    }
+
+    /**
+     * Records the outcome of a remote call made on behalf of a call that already holds the permission,
+     * such as the login done while a submission opens a driver. Such a call is never the probe of a half-open circuit.
+     */
+    public <T> T observe(OnlineJudgeType judge, Supplier<T> call) {
+        return observe(judge, CircuitBreaker.Permit.ALLOWED, call);
+    }
+
+    private <T> T observe(OnlineJudgeType judge, CircuitBreaker.Permit permit, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onResult(judge, permit, false, Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (XJudgeException exception) {
+            if (exception.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) onIgnored(judge, permit);
+            else onResult(judge, permit, exception.getStatusCode().is5xxServerError(), Duration.ofNanos(System.nanoTime() - start));
+            throw exception;
+        } catch (RuntimeException exception) {
+            onResult(judge, permit, true, Duration.ofNanos(System.nanoTime() - start));
+            throw exception;
+        }
+    }
+
+    public void observe(OnlineJudgeType judge, Runnable call) {
+        observe(judge, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public boolean isOpen(OnlineJudgeType judge) {
+        return breakers.get(judge).isOpen(Instant.now());
+    }
+
+    public Instant getRetryAt(OnlineJudgeType judge) {
+        return breakers.get(judge).getRetryAt();
+    }
+
+    public CircuitBreaker get(OnlineJudgeType judge) {
+        return breakers.get(judge);
+    }
+}
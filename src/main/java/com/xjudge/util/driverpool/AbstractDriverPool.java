@@ -0,0 +1,345 @@
+package com.xjudge.util.driverpool;
+
+import com.xjudge.config.judge.JudgeProperties;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.service.scraping.session.JudgeSessionStore;
+import com.xjudge.service.scraping.strategy.LoginService;
+import com.xjudge.util.circuitbreaker.JudgeCircuitBreakers;
+import com.xjudge.util.routing.AccountRouter;
+import com.xjudge.util.routing.RouteRequest;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the idle drivers behind a fair lock, so waiting callers park instead of spinning and
+ * get served in arrival order. A caller that can't get a driver within the acquire timeout
+ * gets a 503 instead of waiting forever.
+ * <p>
+ * Every driver is logged in with its own account from the judge configuration, and the
+ * {@link AccountRouter} decides which idle driver (or which account for a new driver) a submission
+ * goes through. The pool warms up {@code pool.min-drivers} drivers in the background once the
+ * application is ready, opens a new one for a free account whenever no idle driver suits the caller
+ * (up to {@code pool.max-drivers}), and closes drivers that stayed idle longer than {@code pool.idle-ttl}.
+ * <p>
+ * New drivers start from the cookies kept in the {@link JudgeSessionStore} and only fall back to the
+ * login form when those are gone, logins are re-checked by {@link #validateSessions()} rather than per lease.
+ * Login outcomes feed the circuit of the judge, and sessions aren't re-checked while that circuit is open.
+ */
+public abstract class AbstractDriverPool implements DriverPool {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition driverReleased = lock.newCondition();
+    private final Map<String, WebDriverWrapper> freeDrivers = new LinkedHashMap<>();
+    private final Map<String, JudgeProperties.Account> freeAccounts = new LinkedHashMap<>();
+    private final Set<WebDriverWrapper> drivers = ConcurrentHashMap.newKeySet();
+    private final List<String> accounts;
+    private final AtomicInteger nextDriverId = new AtomicInteger();
+    private final ObjectProvider<WebDriver> driverProvider;
+    private final LoginService loginService;
+    private final JudgeSessionStore sessionStore;
+    private final AccountRouter router;
+    private final JudgeCircuitBreakers circuitBreakers;
+    private final OnlineJudgeType judge;
+    private final String homeUrl;
+    private final Duration acquireTimeout;
+    private final Duration idleTtl;
+    private final int minDrivers;
+    private final int maxDrivers;
+    private int driverCount;
+    private int waitingCallers;
+    private volatile PoolState state = PoolState.WARMING_UP;
+
+    public enum PoolState {
+        WARMING_UP, READY, UNAVAILABLE
+    }
+
+    protected AbstractDriverPool(ObjectProvider<WebDriver> driverProvider, LoginService loginService,
+                                 JudgeSessionStore sessionStore, AccountRouter router,
+                                 JudgeCircuitBreakers circuitBreakers, OnlineJudgeType judge, String homeUrl,
+                                 JudgeProperties properties, Duration acquireTimeout) {
+        this.driverProvider = driverProvider;
+        this.loginService = loginService;
+        this.sessionStore = sessionStore;
+        this.router = router;
+        this.circuitBreakers = circuitBreakers;
+        this.judge = judge;
+        this.homeUrl = homeUrl;
+        this.acquireTimeout = acquireTimeout;
+        this.idleTtl = properties.getPool().getIdleTtl();
+        this.accounts = properties.getAccounts().stream().map(JudgeProperties.Account::getUsername).toList();
+        properties.getAccounts().forEach(account -> freeAccounts.put(account.getUsername(), account));
+        this.maxDrivers = Math.min(properties.getPool().getMaxDrivers(), properties.getAccounts().size());
+        this.minDrivers = Math.min(properties.getPool().getMinDrivers(), maxDrivers);
+    }
+
+    /**
+     * Opens the warm drivers in parallel once the application is up, so startup never waits on a
+     * browser or a remote login. Until the warm-up is done callers simply open drivers on demand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.ofVirtual().name(judge + "-pool-warm-up").start(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < minDrivers; i++) {
+                    executor.submit(() -> {
+                        JudgeProperties.Account account = reserveAccount(null);
+                        if (account == null) return;
+                        WebDriverWrapper driverWrapper = openDriver(account);
+                        if (driverWrapper != null) releaseDriver(driverWrapper);
+                    });
+                }
+            }
+            state = minDrivers > 0 && drivers.isEmpty() ? PoolState.UNAVAILABLE : PoolState.READY;
+            logger.info("{} pool warm-up finished with {} drivers", judge, drivers.size());
+        });
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        for (WebDriverWrapper driverWrapper : drivers) {
+            driverWrapper.getDriver().quit();
+        }
+    }
+
+    @Override
+    public DriverLease acquire(RouteRequest request) {
+        long deadline = System.nanoTime() + acquireTimeout.toNanos();
+        while (true) {
+            JudgeProperties.Account account;
+            lock.lock();
+            waitingCallers++;
+            try {
+                logger.info("The number of driver in pool : {}", drivers.size());
+                logger.info("The number of free driver in pool : {}", freeDrivers.size());
+                logger.info("The number of callers waiting for a driver : {}", waitingCallers - 1);
+                while (true) {
+                    Optional<String> idle = router.choose(judge, freeDrivers.keySet(), accounts, request);
+                    if (idle.isPresent()) {
+                        return new DriverLease(this, freeDrivers.remove(idle.get()));
+                    }
+                    account = reserveAccount(request);
+                    if (account != null) break;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new XJudgeException("All drivers are busy, try again later", getClass().getName(), HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                    driverReleased.awaitNanos(remaining);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new XJudgeException("Interrupted while waiting for a free driver", getClass().getName(), HttpStatus.SERVICE_UNAVAILABLE);
+            } finally {
+                waitingCallers--;
+                lock.unlock();
+            }
+            // the browser is opened outside the lock, it takes seconds
+            WebDriverWrapper driverWrapper = openDriver(account);
+            if (driverWrapper != null) return new DriverLease(this, driverWrapper);
+            if (System.nanoTime() >= deadline) {
+                throw new XJudgeException("Fail to open a driver, try again later", getClass().getName(), HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+    }
+
+    @Override
+    public void releaseDriver(WebDriverWrapper driverWrapper) {
+        lock.lock();
+        try {
+            if (drivers.contains(driverWrapper) && !freeDrivers.containsKey(driverWrapper.getUserName())) {
+                driverWrapper.setLastReleased(Instant.now());
+                freeDrivers.put(driverWrapper.getUserName(), driverWrapper);
+                driverReleased.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${driver-pool.eviction-interval-ms:60000}")
+    public void evictIdleDrivers() {
+        Instant threshold = Instant.now().minus(idleTtl);
+        for (WebDriverWrapper driverWrapper : takeIdleDrivers(wrapper -> wrapper.getLastReleased().isBefore(threshold), minDrivers)) {
+            logger.info("Closing idle driver of {}", driverWrapper.getUserName());
+            destroy(driverWrapper);
+        }
+    }
+
+    /**
+     * Checks the login of the idle drivers in the background, so leasing a driver never waits on a login
+     * round-trip. Drivers are checked one at a time and go back to the pool right after their check, so
+     * callers keep finding idle drivers meanwhile. A driver that can't log in any more is closed and its
+     * account goes back to the free accounts.
+     */
+    @Scheduled(fixedDelayString = "${driver-pool.session-check-interval-ms:300000}")
+    public void validateSessions() {
+        Set<WebDriverWrapper> checked = new HashSet<>();
+        // a judge that is down would make every session look invalid and close all the drivers
+        while (!circuitBreakers.isOpen(judge)) {
+            WebDriverWrapper driverWrapper = takeIdleDriver(wrapper -> !checked.contains(wrapper));
+            if (driverWrapper == null) return;
+            checked.add(driverWrapper);
+            try {
+                circuitBreakers.observe(judge, () -> loginService.verifyLogin(driverWrapper.getDriver(), driverWrapper.getUserName(), driverWrapper.getPassword()));
+                sessionStore.save(judge, driverWrapper.getUserName(), driverWrapper.getDriver().manage().getCookies());
+                releaseDriver(driverWrapper);
+            } catch (RuntimeException exception) {
+                if (circuitBreakers.isOpen(judge)) {
+                    // this failure tripped the circuit, the judge is more likely down than the session gone
+                    logger.warn("Stopped checking the sessions of {}, its circuit is open", judge);
+                    releaseDriver(driverWrapper);
+                    return;
+                }
+                logger.error("Session of {} is no longer valid : {}", driverWrapper.getUserName(), exception.getMessage());
+                destroy(driverWrapper);
+            }
+        }
+    }
+
+    public PoolState getState() {
+        // a pool that failed its warm-up recovers as soon as a driver could be opened on demand
+        if (state == PoolState.UNAVAILABLE && !drivers.isEmpty()) state = PoolState.READY;
+        return state;
+    }
+
+    public OnlineJudgeType getJudge() {
+        return judge;
+    }
+
+    public int getNumberOfDrivers() {
+        return drivers.size();
+    }
+
+    public int getNumberOfBusyDrivers() {
+        lock.lock();
+        try {
+            return drivers.size() - freeDrivers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumberOfWaitingCallers() {
+        lock.lock();
+        try {
+            return waitingCallers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a free account for a new driver while the pool may still grow, the warm-up passes no request
+     * and simply gets the next account.
+     */
+    private JudgeProperties.Account reserveAccount(RouteRequest request) {
+        lock.lock();
+        try {
+            if (driverCount >= maxDrivers) return null;
+            Optional<String> chosen = request == null
+                    ? freeAccounts.keySet().stream().findFirst()
+                    : router.choose(judge, freeAccounts.keySet(), accounts, request);
+            if (chosen.isEmpty()) return null;
+            driverCount++;
+            return freeAccounts.remove(chosen.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<WebDriverWrapper> takeIdleDrivers(Predicate<WebDriverWrapper> filter, int keep) {
+        return takeIdleDrivers(filter, keep, Integer.MAX_VALUE);
+    }
+
+    private WebDriverWrapper takeIdleDriver(Predicate<WebDriverWrapper> filter) {
+        List<WebDriverWrapper> taken = takeIdleDrivers(filter, 0, 1);
+        return taken.isEmpty() ? null : taken.getFirst();
+    }
+
+    private List<WebDriverWrapper> takeIdleDrivers(Predicate<WebDriverWrapper> filter, int keep, int limit) {
+        lock.lock();
+        try {
+            List<WebDriverWrapper> taken = new ArrayList<>();
+            Iterator<WebDriverWrapper> iterator = freeDrivers.values().iterator();
+            while (iterator.hasNext() && taken.size() < limit && driverCount - taken.size() > keep) {
+                WebDriverWrapper driverWrapper = iterator.next();
+                if (filter.test(driverWrapper)) {
+                    iterator.remove();
+                    taken.add(driverWrapper);
+                }
+            }
+            return taken;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WebDriverWrapper openDriver(JudgeProperties.Account account) {
+        WebDriver driver = null;
+        try {
+            driver = driverProvider.getObject();
+            WebDriverWrapper driverWrapper = new WebDriverWrapper(nextDriverId.incrementAndGet(), driver,
+                    account.getUsername(), account.getPassword(), Instant.now());
+            restoreSession(driver, account.getUsername());
+            WebDriver openedDriver = driver;
+            circuitBreakers.observe(judge, () -> loginService.verifyLogin(openedDriver, account.getUsername(), account.getPassword()));
+            sessionStore.save(judge, account.getUsername(), driver.manage().getCookies());
+            drivers.add(driverWrapper);
+            logger.info("Opened a new driver for {}", account.getUsername());
+            return driverWrapper;
+        } catch (RuntimeException exception) {
+            logger.error("Fail to open a driver for {} : {}", account.getUsername(), exception.getMessage());
+            if (driver != null) driver.quit();
+            returnAccount(account);
+            return null;
+        }
+    }
+
+    private void restoreSession(WebDriver driver, String account) {
+        Map<String, String> cookies = sessionStore.getCookies(judge, account);
+        if (cookies.isEmpty()) return;
+        // cookies can only be added for the domain the browser is currently on
+        driver.get(homeUrl);
+        cookies.forEach((name, value) -> driver.manage().addCookie(new Cookie(name, value)));
+    }
+
+    private void destroy(WebDriverWrapper driverWrapper) {
+        drivers.remove(driverWrapper);
+        returnAccount(new JudgeProperties.Account(driverWrapper.getUserName(), driverWrapper.getPassword()));
+        try {
+            driverWrapper.getDriver().quit();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage());
+        }
+    }
+
+    private void returnAccount(JudgeProperties.Account account) {
+        lock.lock();
+        try {
+            driverCount--;
+            freeAccounts.put(account.getUsername(), account);
+            driverReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.xjudge.util.driverpool;
+
+import lombok.Getter;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A driver borrowed from a {@link DriverPool}, meant to be used with try-with-resources.
+ * Closing the lease more than once returns the driver to the pool only the first time.
+ */
+public class DriverLease implements AutoCloseable {
+    private final DriverPool pool;
+    @Getter
+    private final WebDriverWrapper driverWrapper;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    public DriverLease(DriverPool pool, WebDriverWrapper driverWrapper) {
+        this.pool = pool;
+        this.driverWrapper = driverWrapper;
+    }
+
+    public WebDriver getDriver() {
+        return driverWrapper.getDriver();
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.releaseDriver(driverWrapper);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.xjudge.util.driverpool;
+
+import com.xjudge.util.routing.RouteRequest;
+
 public interface DriverPool {
-    public WebDriverWrapper getDriverData();
+    DriverLease acquire(RouteRequest request);
     void releaseDriver(WebDriverWrapper driver);
 }
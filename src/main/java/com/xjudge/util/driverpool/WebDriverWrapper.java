@@ -3,12 +3,20 @@ package com.xjudge.util.driverpool;
 import lombok.*;
 import org.openqa.selenium.WebDriver;
 
+import java.time.Instant;
+
 @AllArgsConstructor
 @Setter
 @Getter
 @ToString
-@EqualsAndHashCode
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class WebDriverWrapper {
+    @EqualsAndHashCode.Include
     int id;
+    @ToString.Exclude
     WebDriver driver;
+    String userName;
+    @ToString.Exclude
+    String password;
+    Instant lastReleased;
 }
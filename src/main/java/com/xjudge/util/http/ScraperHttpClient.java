@@ -0,0 +1,189 @@
+package com.xjudge.util.http;
+
+import com.xjudge.config.judge.ScraperHttpProperties;
+import com.xjudge.model.onlinejudge.ScraperHostStatistics;
+import com.xjudge.util.cache.WeightedLruCache;
+import jakarta.annotation.PreDestroy;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The HTTP client every problem scraper fetches its pages with, Jsoup only parses them.
+ * <p>
+ * Connections are kept alive and use HTTP/2 where the judge offers it, responses are asked for gzipped, and at most
+ * {@code scraper-http.max-concurrency-per-host} requests are in flight per host. Pages that came with an ETag or a
+ * Last-Modified date are kept (up to {@code scraper-http.cache-size}), so fetching one of them again is a
+ * conditional request that costs a 304 when the page didn't change. Every request counts once it holds its permit,
+ * and the time of failed requests is averaged apart from the time of the ones that succeeded.
+ */
+@Component
+public class ScraperHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(ScraperHttpClient.class);
+    private final ScraperHttpProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final WeightedLruCache<String, Page> pages;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, HostCounters> hostCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScraperHttpClient(ScraperHttpProperties scraperHttpProperties) {
+        this.properties = scraperHttpProperties;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+        this.pages = new WeightedLruCache<>(Integer.MAX_VALUE, properties.getCacheSize().toBytes(), Page::size);
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        httpClient.close();
+        executor.shutdown();
+    }
+
+    /**
+     * @throws HttpStatusException when the server answers with an error status, like {@code Jsoup.connect(url).get()}
+     */
+    public Document getDocument(String url) throws IOException {
+        Page page = get(url);
+        try (InputStream body = new ByteArrayInputStream(page.body())) {
+            // without a charset in the Content-Type, Jsoup looks for it in the page itself
+            return Jsoup.parse(body, page.charset(), url);
+        }
+    }
+
+    public Page get(String url) throws IOException {
+        URI uri = URI.create(url);
+        String host = uri.getHost();
+        HostCounters counters = hostCounters.computeIfAbsent(host, key -> new HostCounters());
+        Page cached = pages.getIfPresent(url);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getRequestTimeout())
+                .header("Accept-Encoding", "gzip")
+                .header("User-Agent", properties.getUserAgent())
+                .GET();
+        if (cached != null && cached.etag() != null) request.header("If-None-Match", cached.etag());
+        if (cached != null && cached.lastModified() != null) request.header("If-Modified-Since", cached.lastModified());
+
+        Semaphore permits = hostPermits.computeIfAbsent(host, key -> new Semaphore(properties.getMaxConcurrencyPerHost(), true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + url);
+        }
+        // the time spent waiting for a permit is our own queueing, not the host's
+        long start = System.nanoTime();
+        boolean failed = true;
+        counters.requests.increment();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            counters.bytesReceived.add(response.body().length);
+            if (response.statusCode() == 304 && cached != null) {
+                counters.notModified.increment();
+                failed = false;
+                return cached;
+            }
+            if (response.statusCode() >= 400) {
+                throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+            }
+            Page page = new Page(decode(response), charset(response),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+            if (page.etag() != null || page.lastModified() != null) pages.put(url, page);
+            failed = false;
+            return page;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        } catch (HttpStatusException exception) {
+            throw exception;
+        } catch (IOException exception) {
+            logger.warn("Fail to fetch {} : {}", url, exception.getMessage());
+            throw exception;
+        } finally {
+            permits.release();
+            counters.record(failed, System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, ScraperHostStatistics> getHostStatistics() {
+        Map<String, ScraperHostStatistics> statistics = new TreeMap<>();
+        hostCounters.forEach((host, counters) -> statistics.put(host, counters.snapshot()));
+        return statistics;
+    }
+
+    private byte[] decode(HttpResponse<byte[]> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+        if (!gzip) return response.body();
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return body.readAllBytes();
+        }
+    }
+
+    private String charset(HttpResponse<byte[]> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) return trimmed.substring(8).replace("\"", "");
+        }
+        return null;
+    }
+
+    public record Page(byte[] body, String charset, String etag, String lastModified) {
+        long size() {
+            return body.length;
+        }
+    }
+
+    private static class HostCounters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder failureNanos = new LongAdder();
+
+        void record(boolean failed, long elapsed) {
+            if (failed) {
+                failures.increment();
+                failureNanos.add(elapsed);
+            } else {
+                nanos.add(elapsed);
+            }
+        }
+
+        ScraperHostStatistics snapshot() {
+            long failed = failures.sum();
+            long succeeded = requests.sum() - failed;
+            return new ScraperHostStatistics(requests.sum(), notModified.sum(), failed, bytesReceived.sum(),
+                    succeeded <= 0 ? 0 : nanos.sum() / succeeded / 1_000_000,
+                    failed == 0 ? 0 : failureNanos.sum() / failed / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.xjudge.util.ratelimit;
+
+/**
+ * The kinds of remote judge traffic that get their own rate limit budget.
+ */
+public enum RemoteOperation {
+    SUBMIT, LOGIN, STATUS_POLL, SCRAPE
+}
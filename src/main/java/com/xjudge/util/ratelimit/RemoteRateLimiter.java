@@ -0,0 +1,107 @@
+package com.xjudge.util.ratelimit;
+
+import com.xjudge.config.judge.RateLimitProperties;
+import com.xjudge.exception.XJudgeException;
+import com.xjudge.model.enums.OnlineJudgeType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the traffic we send to the remote judges with one token bucket per judge, account and
+ * {@link RemoteOperation}, so a burst of submissions or polls can't get an account banned.
+ * Anonymous traffic such as problem scraping uses the {@link #ANONYMOUS} account. Every bucket is published
+ * as an {@code xjudge.rate-limit.tokens} gauge tagged with its judge, account and operation.
+ */
+@Component
+public class RemoteRateLimiter {
+    public static final String ANONYMOUS = "anonymous";
+    private final Map<Key, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RemoteRateLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this.properties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean tryAcquire(OnlineJudgeType judge, String account, RemoteOperation operation) {
+        return bucket(judge, account, operation).tryConsume();
+    }
+
+    /**
+     * Waits for a token up to {@code rate-limit.max-wait}, failing with 429 when the budget stays exhausted.
+     */
+    public void acquire(OnlineJudgeType judge, String account, RemoteOperation operation) {
+        TokenBucket bucket = bucket(judge, account, operation);
+        long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+        while (!bucket.tryConsume()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new XJudgeException("Too many requests to " + judge + ", try again later", RemoteRateLimiter.class.getName(), HttpStatus.TOO_MANY_REQUESTS);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(Math.min(bucket.nanosUntilNextToken(), remaining), 1));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new XJudgeException("Interrupted while waiting for the rate limit", RemoteRateLimiter.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+    }
+
+    /**
+     * @return how long a bucket of the operation takes to gain a token
+     */
+    public Duration getRefillPeriod(RemoteOperation operation) {
+        return budget(operation).getRefillPeriod();
+    }
+
+    /**
+     * @return the tokens left in every bucket of the judge, by account then operation
+     */
+    public Map<String, Map<RemoteOperation, Long>> getRemainingTokens(OnlineJudgeType judge) {
+        Map<String, Map<RemoteOperation, Long>> remaining = new TreeMap<>();
+        buckets.forEach((key, bucket) -> {
+            if (key.judge() != judge) return;
+            remaining.computeIfAbsent(key.account(), account -> new EnumMap<>(RemoteOperation.class))
+                    .put(key.operation(), bucket.getAvailableTokens());
+        });
+        return remaining;
+    }
+
+    private TokenBucket bucket(OnlineJudgeType judge, String account, RemoteOperation operation) {
+        return buckets.computeIfAbsent(new Key(judge, account, operation), key -> {
+            RateLimitProperties.Budget budget = budget(operation);
+            TokenBucket created = new TokenBucket(budget.getCapacity(), budget.getRefillPeriod());
+            Gauge.builder("xjudge.rate-limit.tokens", created, TokenBucket::getAvailableTokens)
+                    .description("Tokens left in the rate limit bucket of a remote judge account")
+                    .tag("judge", judge.name())
+                    .tag("account", account)
+                    .tag("operation", operation.name().toLowerCase())
+                    .strongReference(true)
+                    .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private RateLimitProperties.Budget budget(RemoteOperation operation) {
+        return switch (operation) {
+            case SUBMIT -> properties.getSubmit();
+            case LOGIN -> properties.getLogin();
+            case STATUS_POLL -> properties.getStatusPoll();
+            case SCRAPE -> properties.getScrape();
+        };
+    }
+
+    private record Key(OnlineJudgeType judge, String account, RemoteOperation operation) {}
+}
@@ -0,0 +1,55 @@
+package com.xjudge.util.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A classic token bucket: holds up to {@code capacity} tokens and gains one every {@code refillPeriod}.
+ * Refills are computed lazily from the elapsed time, so an idle bucket costs nothing.
+ */
+public class TokenBucket {
+    private final long capacity;
+    private final long refillPeriodNanos;
+    private long tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, Duration refillPeriod) {
+        this.capacity = Math.max(capacity, 1);
+        this.refillPeriodNanos = Math.max(refillPeriod.toNanos(), 1);
+        this.tokens = this.capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens == 0) return false;
+        tokens--;
+        return true;
+    }
+
+    public synchronized long getAvailableTokens() {
+        refill();
+        return tokens;
+    }
+
+    /**
+     * @return how long until the next token is added, zero when a token is already available
+     */
+    public synchronized long nanosUntilNextToken() {
+        refill();
+        if (tokens > 0) return 0;
+        return refillPeriodNanos - (System.nanoTime() - lastRefill);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long newTokens = (now - lastRefill) / refillPeriodNanos;
+        if (newTokens == 0) return;
+        if (tokens + newTokens >= capacity) {
+            tokens = capacity;
+            lastRefill = now;
+        } else {
+            tokens += newTokens;
+            lastRefill += newTokens * refillPeriodNanos;
+        }
+    }
+}
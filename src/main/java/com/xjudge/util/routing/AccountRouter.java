@@ -0,0 +1,130 @@
+package com.xjudge.util.routing;
+
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.submission.SentSource;
+import com.xjudge.repository.SubmissionRepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the judge account a submission goes through. Among the free accounts it prefers the one with
+ * the least in-flight runs, then the one that submitted least recently, and it skips accounts that
+ * already sent the exact same source for the same problem, which judges like Codeforces reject.
+ * That history is rebuilt at startup from the stored source hashes of the latest submissions we sent, before
+ * anything is sent again.
+ */
+@Component
+public class AccountRouter {
+    private static final int REMEMBERED_SUBMISSIONS = 1000;
+    private static final int SEED_PAGES = 10;
+    private static final int SEED_PAGE_SIZE = 500;
+    private final Map<String, AccountUsage> usages = new ConcurrentHashMap<>();
+    private final SubmissionRepo submissionRepo;
+
+    @Autowired
+    public AccountRouter(SubmissionRepo submissionRepo) {
+        this.submissionRepo = submissionRepo;
+    }
+
+    @PostConstruct
+    public void seedFromHistory() {
+        List<SentSource> sent = new ArrayList<>();
+        for (int page = 0; page < SEED_PAGES; page++) {
+            List<SentSource> batch = submissionRepo.findRecentlySentSources(PageRequest.of(page, SEED_PAGE_SIZE));
+            sent.addAll(batch);
+            if (batch.size() < SEED_PAGE_SIZE) break;
+        }
+        // oldest first, so the latest sources are the last ones to be evicted
+        for (int i = sent.size() - 1; i >= 0; i--) {
+            SentSource source = sent.get(i);
+            usage(source.ojType(), source.remoteAccount()).remember(new RouteRequest(source.problemCode(), source.sourceHash()));
+        }
+    }
+
+    /**
+     * Adds a source sent before the ones already remembered, it only takes the room left in the history of the account.
+     */
+    public void rememberOlder(OnlineJudgeType judge, String account, RouteRequest request) {
+        usage(judge, account).rememberIfRoom(request);
+    }
+
+    /**
+     * @param free the accounts that can take the submission right now
+     * @param all every account of the judge
+     * @return the chosen free account, or empty when the caller should wait for another account to free up
+     */
+    public Optional<String> choose(OnlineJudgeType judge, Collection<String> free, Collection<String> all, RouteRequest request) {
+        if (free.isEmpty()) return Optional.empty();
+        boolean everyAccountSubmittedIt = all.stream().allMatch(account -> usage(judge, account).hasSubmitted(request));
+        return free.stream()
+                .filter(account -> everyAccountSubmittedIt || !usage(judge, account).hasSubmitted(request))
+                .min(Comparator.<String>comparingInt(account -> usage(judge, account).getInFlight())
+                        .thenComparing(account -> usage(judge, account).getLastSubmit()));
+    }
+
+    public void onSubmitted(OnlineJudgeType judge, String account, RouteRequest request) {
+        usage(judge, account).submitted(request);
+    }
+
+    /**
+     * Replaces the in-flight counts of the judge with the runs currently waiting for their verdict.
+     */
+    public void updateInFlight(OnlineJudgeType judge, Map<String, Integer> inFlight) {
+        String prefix = judge + ":";
+        usages.forEach((key, usage) -> {
+            if (key.startsWith(prefix)) usage.setInFlight(0);
+        });
+        inFlight.forEach((account, count) -> usage(judge, account).setInFlight(count));
+    }
+
+    private AccountUsage usage(OnlineJudgeType judge, String account) {
+        return usages.computeIfAbsent(judge + ":" + account, key -> new AccountUsage());
+    }
+
+    private static class AccountUsage {
+        private final Set<String> submitted = Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > REMEMBERED_SUBMISSIONS;
+            }
+        });
+        private volatile int inFlight;
+        private volatile Instant lastSubmit = Instant.EPOCH;
+
+        synchronized boolean hasSubmitted(RouteRequest request) {
+            return submitted.contains(request.key());
+        }
+
+        synchronized void remember(RouteRequest request) {
+            submitted.add(request.key());
+        }
+
+        synchronized void rememberIfRoom(RouteRequest request) {
+            if (submitted.size() < REMEMBERED_SUBMISSIONS) submitted.add(request.key());
+        }
+
+        synchronized void submitted(RouteRequest request) {
+            submitted.add(request.key());
+            inFlight++;
+            lastSubmit = Instant.now();
+        }
+
+        int getInFlight() {
+            return inFlight;
+        }
+
+        void setInFlight(int inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        Instant getLastSubmit() {
+            return lastSubmit;
+        }
+    }
+}
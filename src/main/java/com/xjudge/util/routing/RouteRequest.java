@@ -0,0 +1,38 @@
+package com.xjudge.util.routing;
+
+import com.xjudge.model.submission.SubmissionInfoModel;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * What the account router needs to know about a submission: the problem and a hash of its exact source.
+ */
+public record RouteRequest(String problemCode, String sourceHash) {
+
+    public static RouteRequest of(SubmissionInfoModel info) {
+        return of(info.code(), info.solutionCode());
+    }
+
+    public static RouteRequest of(String problemCode, String source) {
+        return new RouteRequest(problemCode, hashSource(source));
+    }
+
+    public String key() {
+        return problemCode + ":" + sourceHash;
+    }
+
+    /**
+     * @return the SHA-256 of the source, as stored in the {@code source_hash} column of the submission
+     */
+    public static String hashSource(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
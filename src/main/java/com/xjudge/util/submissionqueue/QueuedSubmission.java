@@ -0,0 +1,33 @@
+package com.xjudge.util.submissionqueue;
+
+import com.xjudge.entity.Contest;
+import com.xjudge.entity.Submission;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.SubmissionPriority;
+import com.xjudge.model.enums.UserRole;
+
+import java.time.Instant;
+
+/**
+ * What the {@link SubmissionQueue} needs to know to schedule a submission without loading it again.
+ */
+public record QueuedSubmission(Long submissionId, Long userId, UserRole role,
+                               OnlineJudgeType judge, SubmissionPriority priority) {
+
+    /**
+     * Submissions of a running contest go ahead of practice ones, a contest resubmission that is
+     * retried after the contest ended competes as practice.
+     */
+    public static QueuedSubmission of(Submission submission) {
+        Contest contest = submission.getContest();
+        boolean running = contest != null
+                && Instant.now().isBefore(contest.getBeginTime().plus(contest.getDuration()));
+        return new QueuedSubmission(
+                submission.getId(),
+                submission.getUser().getId(),
+                submission.getUser().getRole(),
+                submission.getProblem().getOnlineJudge(),
+                running ? SubmissionPriority.CONTEST : SubmissionPriority.PRACTICE
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.xjudge.util.submissionqueue;
+
+import com.xjudge.config.judge.SubmissionQueueProperties;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.SubmissionPriority;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Decides which queued submission is sent next to each online judge.
+ * <p>
+ * A judge sends at most {@code submission-queue.max-in-flight-per-judge} submissions at a time. A free slot goes
+ * to the {@link SubmissionPriority#CONTEST} class before the {@link SubmissionPriority#PRACTICE} one, and within
+ * a class to the users in weighted fair order. This is weighted fair queuing with self-clocked virtual time:
+ * every submission is stamped with a start tag of {@code max(virtual time, previous finish of its user)} and a
+ * finish tag of {@code start + 1 / weight}. The smallest finish tag goes first, and the virtual time moves up to
+ * the start tag of the submission that was sent. So a user who queues twenty submissions only gets their share
+ * of the judge. Users who already have {@code submission-queue.max-in-flight-per-user} submissions in flight are
+ * skipped.
+ */
+@Component
+public class SubmissionQueue {
+    private final SubmissionQueueProperties properties;
+    private final Map<OnlineJudgeType, Map<SubmissionPriority, ClassQueue>> queues = new EnumMap<>(OnlineJudgeType.class);
+    private final Map<OnlineJudgeType, Integer> inFlightByJudge = new EnumMap<>(OnlineJudgeType.class);
+    private final Map<Long, Integer> inFlightByUser = new HashMap<>();
+    private final Set<Long> knownSubmissions = new HashSet<>();
+    private long nextSequence;
+
+    @Autowired
+    public SubmissionQueue(SubmissionQueueProperties submissionQueueProperties) {
+        this.properties = submissionQueueProperties;
+        for (OnlineJudgeType judge : OnlineJudgeType.values()) {
+            Map<SubmissionPriority, ClassQueue> classes = new EnumMap<>(SubmissionPriority.class);
+            for (SubmissionPriority priority : SubmissionPriority.values()) classes.put(priority, new ClassQueue());
+            queues.put(judge, classes);
+            inFlightByJudge.put(judge, 0);
+        }
+    }
+
+    /**
+     * @return false when the submission is already queued or being sent
+     */
+    public synchronized boolean offer(QueuedSubmission submission) {
+        if (!knownSubmissions.add(submission.submissionId())) return false;
+        queues.get(submission.judge()).get(submission.priority())
+                .add(submission, properties.getWeight(submission.role()), nextSequence++);
+        return true;
+    }
+
+    /**
+     * Takes every submission that may be sent now and counts it as in flight until it's {@link #release released}.
+     */
+    public synchronized List<QueuedSubmission> pollDispatchable() {
+        List<QueuedSubmission> dispatchable = new ArrayList<>();
+        for (Map.Entry<OnlineJudgeType, Map<SubmissionPriority, ClassQueue>> judgeQueues : queues.entrySet()) {
+            OnlineJudgeType judge = judgeQueues.getKey();
+            while (inFlightByJudge.get(judge) < properties.getMaxInFlightPerJudge()) {
+                QueuedSubmission next = pollNext(judgeQueues.getValue());
+                if (next == null) break;
+                inFlightByJudge.merge(judge, 1, Integer::sum);
+                inFlightByUser.merge(next.userId(), 1, Integer::sum);
+                dispatchable.add(next);
+            }
+        }
+        return dispatchable;
+    }
+
+    public synchronized void release(QueuedSubmission submission) {
+        knownSubmissions.remove(submission.submissionId());
+        inFlightByJudge.merge(submission.judge(), -1, Integer::sum);
+        inFlightByUser.computeIfPresent(submission.userId(), (user, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public synchronized int getNumberOfQueued(OnlineJudgeType judge) {
+        return queues.get(judge).values().stream().mapToInt(ClassQueue::size).sum();
+    }
+
+    public synchronized int getNumberOfInFlight(OnlineJudgeType judge) {
+        return inFlightByJudge.get(judge);
+    }
+
+    /**
+     * @return the place of the submission in the queue of its judge, 1 being the next one to be sent,
+     * or null when it isn't waiting in the queue. Users held back by their in-flight cap aren't accounted for.
+     */
+    public synchronized Integer getPosition(Long submissionId, OnlineJudgeType judge) {
+        int ahead = 0;
+        for (ClassQueue classQueue : queues.get(judge).values()) {
+            Tagged tagged = classQueue.find(submissionId);
+            if (tagged != null) return ahead + classQueue.countAhead(tagged) + 1;
+            ahead += classQueue.size();
+        }
+        return null;
+    }
+
+    private QueuedSubmission pollNext(Map<SubmissionPriority, ClassQueue> classes) {
+        for (ClassQueue classQueue : classes.values()) {
+            QueuedSubmission next = classQueue.poll(this::isUnderUserCap);
+            if (next != null) return next;
+        }
+        return null;
+    }
+
+    private boolean isUnderUserCap(Long userId) {
+        return inFlightByUser.getOrDefault(userId, 0) < properties.getMaxInFlightPerUser();
+    }
+
+    private record Tagged(QueuedSubmission submission, double start, double finish, long sequence) {
+        boolean isBefore(Tagged other) {
+            return finish < other.finish || (finish == other.finish && sequence < other.sequence);
+        }
+    }
+
+    private static class UserQueue {
+        private final Deque<Tagged> submissions = new ArrayDeque<>();
+        private double lastFinish;
+    }
+
+    private static class ClassQueue {
+        private final Map<Long, UserQueue> users = new HashMap<>();
+        private double virtualTime;
+        private int size;
+
+        void add(QueuedSubmission submission, int weight, long sequence) {
+            UserQueue user = users.computeIfAbsent(submission.userId(), id -> new UserQueue());
+            double start = Math.max(virtualTime, user.lastFinish);
+            user.lastFinish = start + 1.0 / weight;
+            user.submissions.addLast(new Tagged(submission, start, user.lastFinish, sequence));
+            size++;
+        }
+
+        QueuedSubmission poll(Predicate<Long> eligible) {
+            Long chosenUser = null;
+            Tagged chosen = null;
+            Iterator<Map.Entry<Long, UserQueue>> iterator = users.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, UserQueue> user = iterator.next();
+                Tagged head = user.getValue().submissions.peekFirst();
+                // an idle user who is behind the virtual time has no credit left to keep
+                if (head == null && user.getValue().lastFinish <= virtualTime) iterator.remove();
+                if (head == null || !eligible.test(user.getKey())) continue;
+                if (chosen == null || head.isBefore(chosen)) {
+                    chosenUser = user.getKey();
+                    chosen = head;
+                }
+            }
+            if (chosen == null) return null;
+            UserQueue user = users.get(chosenUser);
+            user.submissions.pollFirst();
+            size--;
+            virtualTime = Math.max(virtualTime, chosen.start());
+            return chosen.submission();
+        }
+
+        Tagged find(Long submissionId) {
+            for (UserQueue user : users.values()) {
+                for (Tagged tagged : user.submissions) {
+                    if (tagged.submission().submissionId().equals(submissionId)) return tagged;
+                }
+            }
+            return null;
+        }
+
+        int countAhead(Tagged tagged) {
+            int ahead = 0;
+            for (UserQueue user : users.values()) {
+                for (Tagged other : user.submissions) {
+                    if (other.isBefore(tagged)) ahead++;
+                }
+            }
+            return ahead;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.xjudge.model.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerdictTest {
+
+    @ParameterizedTest(name = "\"{0}\" -> {1}")
+    @CsvSource(delimiter = '|', textBlock = """
+            # Codeforces
+            Accepted                          | ACCEPTED
+            Pretests passed                   | ACCEPTED
+            Perfect result: 100 points        | ACCEPTED
+            Happy New Year!                   | ACCEPTED
+            Partial result: 40 points         | PARTIAL
+            Wrong answer on test 3            | WRONG_ANSWER
+            Wrong answer on pretest 2         | WRONG_ANSWER
+            Time limit exceeded on test 12    | TIME_LIMIT_EXCEEDED
+            Memory limit exceeded on test 1   | MEMORY_LIMIT_EXCEEDED
+            Idleness limit exceeded on test 4 | IDLENESS_LIMIT_EXCEEDED
+            Runtime error on test 5           | RUNTIME_ERROR
+            Compilation error                 | COMPILATION_ERROR
+            Hacked                            | HACKED
+            Skipped                           | SKIPPED
+            Denial of judgement               | JUDGE_ERROR
+            In queue                          | IN_QUEUE
+            Running on test 7                 | RUNNING
+            # AtCoder
+            AC                                | ACCEPTED
+            WA                                | WRONG_ANSWER
+            TLE                               | TIME_LIMIT_EXCEEDED
+            MLE                               | MEMORY_LIMIT_EXCEEDED
+            OLE                               | OUTPUT_LIMIT_EXCEEDED
+            RE                                | RUNTIME_ERROR
+            CE                                | COMPILATION_ERROR
+            IE                                | JUDGE_ERROR
+            WJ                                | IN_QUEUE
+            WR                                | IN_QUEUE
+            3/12 WJ                           | RUNNING
+            3/12 TLE                          | RUNNING
+            # SPOJ
+            accepted                          | ACCEPTED
+            wrong answer                      | WRONG_ANSWER
+            time limit exceeded               | TIME_LIMIT_EXCEEDED
+            runtime error (SIGSEGV)           | RUNTIME_ERROR
+            runtime error (NZEC)              | RUNTIME_ERROR
+            compilation error                 | COMPILATION_ERROR
+            internal error                    | JUDGE_ERROR
+            waiting..                         | IN_QUEUE
+            compiling..                       | RUNNING
+            running (3)                       | RUNNING
+            100                               | ACCEPTED
+            7.52                              | ACCEPTED
+            0                                 | ACCEPTED
+            """)
+    void parse(String text, Verdict expected) {
+        assertThat(Verdict.parse(text)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  "})
+    void parseBlankIsInQueue(String text) {
+        assertThat(Verdict.parse(text)).isEqualTo(Verdict.IN_QUEUE);
+    }
+
+    @Test
+    void parseUnknownText() {
+        assertThat(Verdict.parse("Something else")).isEqualTo(Verdict.UNKNOWN);
+    }
+
+    @ParameterizedTest(name = "\"{0}\" is final: {1}")
+    @CsvSource(delimiter = '|', textBlock = """
+            Wrong answer on test 3  | true
+            Pretests passed         | true
+            runtime error (SIGSEGV) | true
+            100                     | true
+            7.52                    | true
+            AC                      | true
+            Running on test 7       | false
+            3/12 WJ                 | false
+            WJ                      | false
+            running (3)             | false
+            """)
+    void isFinal(String text, boolean expected) {
+        assertThat(Verdict.parse(text).isFinal()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "\"{0}\" -> test {1}")
+    @CsvSource(delimiter = '|', textBlock = """
+            Wrong answer on test 3         | 3
+            Wrong answer on pretest 2      | 2
+            Time limit exceeded on test 12 | 12
+            Running on test 7              | 7
+            3/12 WJ                        | 3
+            running (3)                    | 3
+            Pretests passed                |
+            Accepted                       |
+            AC                             |
+            WA                             |
+            runtime error (SIGSEGV)        |
+            100                            |
+            """)
+    void parseTestNumber(String text, Integer expected) {
+        assertThat(Verdict.parseTestNumber(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void parseTestNumberOfNull() {
+        assertThat(Verdict.parseTestNumber(null)).isNull();
+    }
+}
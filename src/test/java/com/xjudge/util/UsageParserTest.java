@@ -0,0 +1,46 @@
+package com.xjudge.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsageParserTest {
+
+    @ParameterizedTest(name = "\"{0}\" -> {1} ms")
+    @CsvSource(delimiter = '|', textBlock = """
+            46 ms   | 46
+            2000 ms | 2000
+            0 ms    | 0
+            0.12    | 120
+            1.005   | 1005
+            2 s     | 2000
+            1.5 sec | 1500
+            -       |
+            """)
+    void parseTimeMs(String text, Integer expected) {
+        assertThat(UsageParser.parseTimeMs(text)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "\"{0}\" -> {1} KB")
+    @CsvSource(delimiter = '|', textBlock = """
+            3904 KiB | 3904
+            256 KB   | 256
+            2.5M     | 2560
+            3.2M     | 3277
+            256 MB   | 262144
+            1 GB     | 1048576
+            2048 B   | 2
+            -        |
+            """)
+    void parseMemoryKb(String text, Integer expected) {
+        assertThat(UsageParser.parseMemoryKb(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void parseNull() {
+        assertThat(UsageParser.parseTimeMs(null)).isNull();
+        assertThat(UsageParser.parseMemoryKb(null)).isNull();
+    }
+}
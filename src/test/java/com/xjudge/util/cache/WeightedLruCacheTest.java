@@ -0,0 +1,123 @@
+package com.xjudge.util.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedLruCacheTest {
+
+    @Test
+    void loadsOnceAndCountsHitsAndMisses() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 100, String::length);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get("a", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("a", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStatistics().hits()).isEqualTo(1);
+        assertThat(cache.getStatistics().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(2, 100, String::length);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+        cache.put("c", "3");
+        assertThat(cache.getIfPresent("a")).isEqualTo("1");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("c")).isEqualTo("3");
+        assertThat(cache.getStatistics().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsUntilTheWeightFits() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        cache.put("a", "xxxxxx");
+        cache.put("b", "xxxx");
+        assertThat(cache.getStatistics().weight()).isEqualTo(10);
+        cache.put("c", "xx");
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getStatistics().weight()).isEqualTo(6);
+        assertThat(cache.getStatistics().entries()).isEqualTo(2);
+    }
+
+    @Test
+    void replacingAnEntryUpdatesTheWeight() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        cache.put("a", "xxxxxx");
+        cache.put("a", "xx");
+        assertThat(cache.getStatistics().weight()).isEqualTo(2);
+        assertThat(cache.getStatistics().evictions()).isZero();
+    }
+
+    @Test
+    void aValueHeavierThanTheBudgetIsNotKept() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        cache.put("a", "x");
+        assertThat(cache.get("b", () -> "xxxxxxxxxxx")).isEqualTo("xxxxxxxxxxx");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("a")).isEqualTo("x");
+        assertThat(cache.getStatistics().evictions()).isZero();
+    }
+
+    @Test
+    void nullIsNotCached() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        assertThat(cache.get("a", () -> null)).isNull();
+        assertThat(cache.get("a", () -> "x")).isEqualTo("x");
+    }
+
+    @Test
+    void aLoadRacingAnInvalidationIsNotKept() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        assertThat(cache.get("a", () -> {
+            cache.invalidate("a");
+            return "stale";
+        })).isEqualTo("stale");
+        assertThat(cache.getIfPresent("a")).isNull();
+
+        cache.get("b", () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getStatistics().weight()).isZero();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 10, String::length);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> get = () -> cache.get("a", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "x";
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(get);
+            started.await();
+            Future<String> second = executor.submit(get);
+            Future<String> third = executor.submit(get);
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("x");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("x");
+            assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("x");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
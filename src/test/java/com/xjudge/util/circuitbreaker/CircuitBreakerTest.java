@@ -0,0 +1,141 @@
+package com.xjudge.util.circuitbreaker;
+
+import com.xjudge.config.judge.CircuitBreakerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private static final Duration FAST = Duration.ofMillis(100);
+    private static final Duration SLOW = Duration.ofSeconds(5);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallDuration(Duration.ofSeconds(1));
+        properties.setSlowCallRateThreshold(75);
+        properties.setOpenDuration(Duration.ofSeconds(60));
+        breaker = new CircuitBreaker(properties);
+    }
+
+    /**
+     * Each outcome is F (failure), S (slow success) or OK.
+     */
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(delimiter = '|', textBlock = """
+            F F F       | CLOSED
+            OK OK F F   | OPEN
+            OK OK OK F  | CLOSED
+            S S S OK    | OPEN
+            S S OK OK   | CLOSED
+            OK OK OK OK | CLOSED
+            """)
+    void opensOnceTheWindowIsBadEnough(String outcomes, CircuitBreaker.State expected) {
+        for (String outcome : outcomes.split(" ")) {
+            breaker.onResult(CircuitBreaker.Permit.ALLOWED, outcome.equals("F"), outcome.equals("S") ? SLOW : FAST, NOW);
+        }
+        assertThat(breaker.getState()).isEqualTo(expected);
+    }
+
+    @Test
+    void rejectsWhileOpen() {
+        open();
+        assertThat(breaker.isOpen(NOW.plusSeconds(59))).isTrue();
+        assertThat(breaker.tryAcquirePermission(NOW.plusSeconds(59)).permitted()).isFalse();
+        assertThat(breaker.getRetryAt()).isEqualTo(NOW.plusSeconds(60));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void letsASingleProbeThroughAfterTheOpenDuration() {
+        open();
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission(NOW.plusSeconds(60));
+        assertThat(probe.permitted()).isTrue();
+        assertThat(probe.isProbe()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission(NOW.plusSeconds(61)).permitted()).isFalse();
+        // a probe that never reported back is replaced
+        CircuitBreaker.Permit replacement = breaker.tryAcquirePermission(NOW.plusSeconds(120));
+        assertThat(replacement.permitted()).isTrue();
+        assertThat(replacement.probe()).isNotEqualTo(probe.probe());
+    }
+
+    @Test
+    void successfulProbeClosesAndClearsTheWindow() {
+        open();
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission(NOW.plusSeconds(60));
+        breaker.onResult(probe, false, FAST, NOW.plusSeconds(61));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.tryAcquirePermission(NOW.plusSeconds(61)).permitted()).isTrue();
+    }
+
+    @ParameterizedTest(name = "failure: {0}, latency: {1}")
+    @CsvSource({"true, PT0.1S", "false, PT5S"})
+    void failedOrSlowProbeOpensAgain(boolean failure, Duration latency) {
+        open();
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission(NOW.plusSeconds(60));
+        breaker.onResult(probe, failure, latency, NOW.plusSeconds(65));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getRetryAt()).isEqualTo(NOW.plusSeconds(125));
+    }
+
+    @ParameterizedTest(name = "failure: {0}")
+    @CsvSource({"true", "false"})
+    void onlyTheProbeDecidesAHalfOpenCircuit(boolean failure) {
+        open();
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission(NOW.plusSeconds(60));
+        // a call let through before the circuit opened reports late
+        breaker.onResult(CircuitBreaker.Permit.ALLOWED, failure, FAST, NOW.plusSeconds(61));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // and so does a probe that was replaced
+        CircuitBreaker.Permit replacement = breaker.tryAcquirePermission(NOW.plusSeconds(120));
+        breaker.onResult(probe, failure, FAST, NOW.plusSeconds(121));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(replacement, false, FAST, NOW.plusSeconds(122));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void ignoredProbeGivesThePermissionBack() {
+        open();
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission(NOW.plusSeconds(60));
+        breaker.onIgnored(CircuitBreaker.Permit.ALLOWED);
+        assertThat(breaker.tryAcquirePermission(NOW.plusSeconds(61)).permitted()).isFalse();
+        breaker.onIgnored(probe);
+        assertThat(breaker.tryAcquirePermission(NOW.plusSeconds(61)).permitted()).isTrue();
+    }
+
+    @Test
+    void lateResultsWhileOpenAreIgnored() {
+        open();
+        for (int i = 0; i < 4; i++) breaker.onResult(CircuitBreaker.Permit.ALLOWED, false, FAST, NOW.plusSeconds(1));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getRetryAt()).isEqualTo(NOW.plusSeconds(60));
+    }
+
+    @Test
+    void oldCallsLeaveTheWindow() {
+        breaker.onResult(CircuitBreaker.Permit.ALLOWED, true, FAST, NOW);
+        for (int i = 0; i < 6; i++) breaker.onResult(CircuitBreaker.Permit.ALLOWED, false, FAST, NOW);
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) breaker.onResult(CircuitBreaker.Permit.ALLOWED, true, FAST, NOW);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
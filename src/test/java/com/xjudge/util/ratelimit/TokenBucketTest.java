@@ -0,0 +1,49 @@
+package com.xjudge.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @ParameterizedTest(name = "capacity {0}")
+    @ValueSource(longs = {1, 3, 10})
+    void startsFullAndRunsDry(long capacity) {
+        TokenBucket bucket = new TokenBucket(capacity, Duration.ofHours(1));
+        assertThat(bucket.getAvailableTokens()).isEqualTo(capacity);
+        assertThat(bucket.nanosUntilNextToken()).isZero();
+        for (int i = 0; i < capacity; i++) assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.getAvailableTokens()).isZero();
+        assertThat(bucket.nanosUntilNextToken()).isPositive().isLessThanOrEqualTo(Duration.ofHours(1).toNanos());
+    }
+
+    @Test
+    void holdsAtLeastOneToken() {
+        TokenBucket bucket = new TokenBucket(0, Duration.ofHours(1));
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofMillis(10));
+        assertThat(bucket.tryConsume()).isTrue();
+        Thread.sleep(50);
+        assertThat(bucket.tryConsume()).isTrue();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, Duration.ofMillis(1));
+        bucket.tryConsume();
+        Thread.sleep(50);
+        assertThat(bucket.getAvailableTokens()).isEqualTo(2);
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+    }
+}
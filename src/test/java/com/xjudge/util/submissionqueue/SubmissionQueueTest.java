@@ -0,0 +1,132 @@
+package com.xjudge.util.submissionqueue;
+
+import com.xjudge.config.judge.SubmissionQueueProperties;
+import com.xjudge.model.enums.OnlineJudgeType;
+import com.xjudge.model.enums.SubmissionPriority;
+import com.xjudge.model.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionQueueTest {
+    private SubmissionQueueProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SubmissionQueueProperties();
+        properties.setMaxInFlightPerJudge(1);
+        properties.setMaxInFlightPerUser(10);
+    }
+
+    @Test
+    void contestSubmissionsGoFirst() {
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        queue.offer(practice(1, 1));
+        queue.offer(practice(2, 2));
+        queue.offer(contest(3, 3));
+        assertThat(dispatchOrder(queue)).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void aLateUserIsNotStuckBehindABatch() {
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        queue.offer(practice(1, 1));
+        queue.offer(practice(2, 1));
+        queue.offer(practice(3, 1));
+        queue.offer(practice(4, 2));
+        assertThat(dispatchOrder(queue)).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    @Test
+    void heavierUsersGetALargerShare() {
+        properties.getWeights().put(UserRole.ADMIN, 2);
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        for (long id = 1; id <= 4; id++) queue.offer(submission(id, 1, UserRole.ADMIN, SubmissionPriority.PRACTICE));
+        queue.offer(practice(5, 2));
+        queue.offer(practice(6, 2));
+        assertThat(dispatchOrder(queue)).containsExactly(1L, 2L, 5L, 3L, 4L, 6L);
+    }
+
+    @Test
+    void usersAtTheirCapAreSkipped() {
+        properties.setMaxInFlightPerJudge(2);
+        properties.setMaxInFlightPerUser(1);
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        queue.offer(practice(1, 1));
+        queue.offer(practice(2, 1));
+        queue.offer(practice(3, 2));
+        assertThat(queue.pollDispatchable()).extracting(QueuedSubmission::submissionId).containsExactly(1L, 3L);
+        assertThat(queue.getNumberOfQueued(OnlineJudgeType.codeforces)).isEqualTo(1);
+        assertThat(queue.getNumberOfInFlight(OnlineJudgeType.codeforces)).isEqualTo(2);
+        assertThat(queue.pollDispatchable()).isEmpty();
+    }
+
+    @Test
+    void judgesHaveTheirOwnSlots() {
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        queue.offer(practice(1, 1));
+        queue.offer(practice(2, 1));
+        queue.offer(new QueuedSubmission(3L, 1L, UserRole.USER, OnlineJudgeType.atcoder, SubmissionPriority.PRACTICE));
+        assertThat(queue.pollDispatchable()).extracting(QueuedSubmission::submissionId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(queue.getNumberOfInFlight(OnlineJudgeType.codeforces)).isEqualTo(1);
+        assertThat(queue.getNumberOfInFlight(OnlineJudgeType.atcoder)).isEqualTo(1);
+        assertThat(queue.getNumberOfQueued(OnlineJudgeType.codeforces)).isEqualTo(1);
+    }
+
+    @Test
+    void aSubmissionIsQueuedOnceUntilReleased() {
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        assertThat(queue.offer(practice(1, 1))).isTrue();
+        assertThat(queue.offer(practice(1, 1))).isFalse();
+        QueuedSubmission sent = queue.pollDispatchable().get(0);
+        assertThat(queue.offer(practice(1, 1))).isFalse();
+        queue.release(sent);
+        assertThat(queue.getNumberOfInFlight(OnlineJudgeType.codeforces)).isZero();
+        assertThat(queue.offer(practice(1, 1))).isTrue();
+    }
+
+    @Test
+    void positionsFollowTheDispatchOrder() {
+        SubmissionQueue queue = new SubmissionQueue(properties);
+        queue.offer(practice(1, 1));
+        queue.offer(practice(2, 1));
+        queue.offer(practice(3, 1));
+        queue.offer(practice(4, 2));
+        queue.offer(contest(5, 3));
+        assertThat(queue.getPosition(5L, OnlineJudgeType.codeforces)).isEqualTo(1);
+        assertThat(queue.getPosition(1L, OnlineJudgeType.codeforces)).isEqualTo(2);
+        assertThat(queue.getPosition(4L, OnlineJudgeType.codeforces)).isEqualTo(3);
+        assertThat(queue.getPosition(2L, OnlineJudgeType.codeforces)).isEqualTo(4);
+        assertThat(queue.getPosition(3L, OnlineJudgeType.codeforces)).isEqualTo(5);
+        assertThat(queue.getPosition(6L, OnlineJudgeType.codeforces)).isNull();
+        assertThat(queue.getPosition(1L, OnlineJudgeType.atcoder)).isNull();
+    }
+
+    private List<Long> dispatchOrder(SubmissionQueue queue) {
+        List<Long> order = new ArrayList<>();
+        List<QueuedSubmission> next;
+        while (!(next = queue.pollDispatchable()).isEmpty()) {
+            next.forEach(submission -> {
+                order.add(submission.submissionId());
+                queue.release(submission);
+            });
+        }
+        return order;
+    }
+
+    private static QueuedSubmission practice(long id, long userId) {
+        return submission(id, userId, UserRole.USER, SubmissionPriority.PRACTICE);
+    }
+
+    private static QueuedSubmission contest(long id, long userId) {
+        return submission(id, userId, UserRole.USER, SubmissionPriority.CONTEST);
+    }
+
+    private static QueuedSubmission submission(long id, long userId, UserRole role, SubmissionPriority priority) {
+        return new QueuedSubmission(id, userId, role, OnlineJudgeType.codeforces, priority);
+    }
+}